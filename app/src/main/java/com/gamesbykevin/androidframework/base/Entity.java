@@ -34,6 +34,9 @@ public class Entity extends Cell implements Disposable
     //the source and destination of the rectangle
     private Rect source, destination;
     
+    //the visible area, null if the entity is always drawn
+    private Viewport viewport;
+    
     /**
      * Create a new Entity
      */
@@ -274,6 +277,24 @@ public class Entity extends Cell implements Disposable
         this.h = h;
     }
     
+    /**
+     * Assign the viewport
+     * @param viewport The visible area, the entity is not drawn when outside of it. null to always draw the entity
+     */
+    public void setViewport(final Viewport viewport)
+    {
+        this.viewport = viewport;
+    }
+    
+    /**
+     * Get the viewport
+     * @return The visible area, null if the entity is always drawn
+     */
+    public Viewport getViewport()
+    {
+        return this.viewport;
+    }
+    
     /**
      * Recycle objects
      */
@@ -381,6 +402,18 @@ public class Entity extends Cell implements Disposable
         if (getHeight() < 1)
             throw new Exception("height has to be at least 1 pixel");
         
+        //skip the draw if the entity is off screen
+        if (getViewport() != null)
+        {
+            if (!getViewport().isVisible(getDestination()))
+            {
+                getViewport().addCulled(1);
+                return;
+            }
+            
+            getViewport().addDrawn(1);
+        }
+        
         //draw the provided image at the current location
         canvas.drawBitmap(image, getSource(image), getDestination(), paint);
    }
@@ -0,0 +1,138 @@
+package com.gamesbykevin.androidframework.base;
+
+import android.graphics.Canvas;
+import android.graphics.Rect;
+
+/**
+ * The visible area of the screen.<br>
+ * Objects outside of the viewport are not drawn, and the viewport counts how many objects were drawn and culled.<br>
+ * Assign the bounds and reset the counters at the start of each frame.
+ * @author GOD
+ */
+public class Viewport
+{
+    //the visible area
+    private final Rect bounds;
+    
+    //the number of objects drawn and culled
+    private int drawn = 0, culled = 0;
+    
+    /**
+     * Create a viewport with no visible area
+     */
+    public Viewport()
+    {
+        this(0, 0, 0, 0);
+    }
+    
+    /**
+     * Create a viewport
+     * @param left The left x-coordinate
+     * @param top The top y-coordinate
+     * @param right The right x-coordinate
+     * @param bottom The bottom y-coordinate
+     */
+    public Viewport(final int left, final int top, final int right, final int bottom)
+    {
+        this.bounds = new Rect(left, top, right, bottom);
+    }
+    
+    /**
+     * Assign the visible area
+     * @param left The left x-coordinate
+     * @param top The top y-coordinate
+     * @param right The right x-coordinate
+     * @param bottom The bottom y-coordinate
+     */
+    public void setBounds(final int left, final int top, final int right, final int bottom)
+    {
+        this.bounds.set(left, top, right, bottom);
+    }
+    
+    /**
+     * Assign the visible area to the clip bounds of the canvas
+     * @param canvas The canvas we are drawing on
+     */
+    public void setBounds(final Canvas canvas)
+    {
+        if (!canvas.getClipBounds(this.bounds))
+            this.bounds.set(0, 0, 0, 0);
+    }
+    
+    /**
+     * Get the bounds
+     * @return The visible area
+     */
+    public Rect getBounds()
+    {
+        return this.bounds;
+    }
+    
+    /**
+     * Is the area visible?
+     * @param left The left x-coordinate
+     * @param top The top y-coordinate
+     * @param right The right x-coordinate
+     * @param bottom The bottom y-coordinate
+     * @return true if any part of the area is inside the viewport, false otherwise
+     */
+    public boolean isVisible(final int left, final int top, final int right, final int bottom)
+    {
+        return (left < bounds.right && right > bounds.left && top < bounds.bottom && bottom > bounds.top);
+    }
+    
+    /**
+     * Is the area visible?
+     * @param area The area we want to check
+     * @return true if any part of the area is inside the viewport, false otherwise
+     */
+    public boolean isVisible(final Rect area)
+    {
+        return isVisible(area.left, area.top, area.right, area.bottom);
+    }
+    
+    /**
+     * Count the objects drawn
+     * @param count The number of objects drawn
+     */
+    public void addDrawn(final int count)
+    {
+        this.drawn += count;
+    }
+    
+    /**
+     * Count the objects culled
+     * @param count The number of objects not drawn because they are outside of the viewport
+     */
+    public void addCulled(final int count)
+    {
+        this.culled += count;
+    }
+    
+    /**
+     * Get the drawn count
+     * @return The number of objects drawn since the counters were reset
+     */
+    public int getDrawn()
+    {
+        return this.drawn;
+    }
+    
+    /**
+     * Get the culled count
+     * @return The number of objects culled since the counters were reset
+     */
+    public int getCulled()
+    {
+        return this.culled;
+    }
+    
+    /**
+     * Reset the drawn and culled counters
+     */
+    public void reset()
+    {
+        this.drawn = 0;
+        this.culled = 0;
+    }
+}
\ No newline at end of file
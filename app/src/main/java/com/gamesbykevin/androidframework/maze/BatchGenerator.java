@@ -0,0 +1,191 @@
+package com.gamesbykevin.androidframework.maze;
+
+import com.gamesbykevin.androidframework.maze.algorithm.Algorithm;
+import com.gamesbykevin.androidframework.resources.Disposable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Generate a batch of mazes (a level pack) across multiple threads.<br>
+ * Each maze is given a seed derived from the batch seed and its index,<br>
+ * so the output is the same no matter how many threads are used.
+ * @author GOD
+ */
+public class BatchGenerator implements Disposable
+{
+    //the seed of the whole batch
+    private final long seed;
+    
+    //the number of threads used to generate
+    private final int threads;
+    
+    //the mazes that make up the batch
+    private List<Entry> entries;
+    
+    /**
+     * Create a batch generator using a thread for each available processor
+     * @param seed The seed of the whole batch
+     */
+    public BatchGenerator(final long seed)
+    {
+        this(seed, Runtime.getRuntime().availableProcessors());
+    }
+    
+    /**
+     * Create a batch generator
+     * @param seed The seed of the whole batch
+     * @param threads The number of threads used to generate
+     * @throws IllegalArgumentException If the number of threads is less than 1
+     */
+    public BatchGenerator(final long seed, final int threads)
+    {
+        if (threads < 1)
+            throw new IllegalArgumentException("At least 1 thread is required");
+        
+        this.seed = seed;
+        this.threads = threads;
+        this.entries = new ArrayList<Entry>();
+    }
+    
+    @Override
+    public void dispose()
+    {
+        if (entries != null)
+        {
+            entries.clear();
+            entries = null;
+        }
+    }
+    
+    /**
+     * Add a maze to the batch
+     * @param algorithm The algorithm used to generate the maze
+     * @param cols Total columns
+     * @param rows Total rows
+     * @return The index of the maze in the batch
+     */
+    public int add(final Algorithm algorithm, final int cols, final int rows)
+    {
+        entries.add(new Entry(algorithm, cols, rows));
+        
+        return (entries.size() - 1);
+    }
+    
+    /**
+     * Get the size
+     * @return The total number of mazes in the batch
+     */
+    public int getSize()
+    {
+        return entries.size();
+    }
+    
+    /**
+     * Get the seed of a single maze.<br>
+     * The batch seed and index are mixed (SplitMix64) so neighboring indexes get unrelated seeds
+     * @param seed The seed of the whole batch
+     * @param index The index of the maze in the batch
+     * @return The seed used to generate the maze
+     */
+    public static long getSeed(final long seed, final int index)
+    {
+        return SeedMixer.mix(seed, index);
+    }
+    
+    /**
+     * Generate every maze in the batch.<br>
+     * This will block until all mazes are generated and handed to the sink
+     * @param sink The object receiving each maze as soon as it is generated
+     * @throws Exception If any maze fails to generate, or the sink fails
+     */
+    public void generate(final IMazeSink sink) throws Exception
+    {
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        
+        try
+        {
+            final List<Future<Void>> futures = new ArrayList<Future<Void>>(entries.size());
+            
+            for (int index = 0; index < entries.size(); index++)
+            {
+                futures.add(executor.submit(new Job(index, entries.get(index), sink)));
+            }
+            
+            //wait for each maze to finish
+            for (Future<Void> future : futures)
+            {
+                try
+                {
+                    future.get();
+                }
+                catch (ExecutionException e)
+                {
+                    if (e.getCause() instanceof Exception)
+                        throw (Exception)e.getCause();
+                    
+                    throw e;
+                }
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+    
+    /**
+     * A single maze in the batch
+     */
+    private static class Entry
+    {
+        private final Algorithm algorithm;
+        private final int cols, rows;
+        
+        private Entry(final Algorithm algorithm, final int cols, final int rows)
+        {
+            this.algorithm = algorithm;
+            this.cols = cols;
+            this.rows = rows;
+        }
+    }
+    
+    /**
+     * The work of generating a single maze
+     */
+    private class Job implements Callable<Void>
+    {
+        private final int index;
+        private final Entry entry;
+        private final IMazeSink sink;
+        
+        private Job(final int index, final Entry entry, final IMazeSink sink)
+        {
+            this.index = index;
+            this.entry = entry;
+            this.sink = sink;
+        }
+        
+        @Override
+        public Void call() throws Exception
+        {
+            //create and generate the maze with its own seed
+            final Maze maze = entry.algorithm.create(entry.cols, entry.rows);
+            maze.generate(new Random(getSeed(seed, index)));
+            
+            //hand the maze to the sink, one at a time
+            synchronized (sink)
+            {
+                sink.onGenerated(index, maze);
+            }
+            
+            return null;
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package com.gamesbykevin.androidframework.maze;
+
+import com.gamesbykevin.androidframework.maze.Room.Wall;
+import com.gamesbykevin.androidframework.maze.algorithm.Algorithm;
+import com.gamesbykevin.androidframework.resources.Disposable;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * A maze world split into square chunks that are generated on demand.<br>
+ * Each chunk is a maze of its own, generated from a seed hashed from (seed, chunk column, chunk row),<br>
+ * so a chunk is identical every time it is generated. Neighboring chunks share a single door on their<br>
+ * common edge, which guarantees the whole world is connected. The least recently used chunks are removed<br>
+ * once the capacity is reached.
+ * @author GOD
+ */
+public class ChunkedMaze implements Disposable
+{
+    /**
+     * Use this for the chunk columns/rows if the world has no limit in that direction
+     */
+    public static final int UNBOUNDED = 0;
+    
+    //the algorithm used to generate each chunk
+    private final Algorithm algorithm;
+    
+    //the number of columns and rows in each chunk
+    private final int size;
+    
+    //the seed of the world
+    private final long seed;
+    
+    //the number of chunks in the world, or UNBOUNDED
+    private final int chunkCols, chunkRows;
+    
+    //the maximum number of chunks kept in memory
+    private final int capacity;
+    
+    //the chunks in memory, ordered from least to most recently used
+    private LinkedHashMap<Long, Maze> chunks;
+    
+    //track the number of chunks generated and removed
+    private int generated = 0, evicted = 0;
+    
+    /**
+     * Create an unbounded world
+     * @param algorithm The algorithm used to generate each chunk
+     * @param size The number of columns and rows in each chunk
+     * @param seed The seed of the world
+     * @param capacity The maximum number of chunks kept in memory
+     * @throws Exception If the chunk size is less than 2 or the capacity is less than 1
+     */
+    public ChunkedMaze(final Algorithm algorithm, final int size, final long seed, final int capacity) throws Exception
+    {
+        this(algorithm, size, seed, capacity, UNBOUNDED, UNBOUNDED);
+    }
+    
+    /**
+     * Create a world
+     * @param algorithm The algorithm used to generate each chunk
+     * @param size The number of columns and rows in each chunk
+     * @param seed The seed of the world
+     * @param capacity The maximum number of chunks kept in memory
+     * @param chunkCols The number of chunk columns in the world, or {@link #UNBOUNDED}
+     * @param chunkRows The number of chunk rows in the world, or {@link #UNBOUNDED}
+     * @throws Exception If the chunk size is less than 2 or the capacity is less than 1
+     */
+    public ChunkedMaze(final Algorithm algorithm, final int size, final long seed, final int capacity, final int chunkCols, final int chunkRows) throws Exception
+    {
+        if (size < 2)
+            throw new Exception("Each chunk must contain at least 2 columns and rows");
+        if (capacity < 1)
+            throw new Exception("At least 1 chunk must be kept in memory");
+        if (chunkCols < 0 || chunkRows < 0)
+            throw new Exception("The number of chunks can't be negative");
+        
+        this.algorithm = algorithm;
+        this.size = size;
+        this.seed = seed;
+        this.capacity = capacity;
+        this.chunkCols = chunkCols;
+        this.chunkRows = chunkRows;
+        
+        //access order so the eldest entry is the least recently used
+        this.chunks = new LinkedHashMap<Long, Maze>(16, 0.75f, true);
+    }
+    
+    @Override
+    public void dispose()
+    {
+        if (chunks != null)
+        {
+            for (Maze chunk : chunks.values())
+            {
+                chunk.dispose();
+            }
+            
+            chunks.clear();
+            chunks = null;
+        }
+    }
+    
+    /**
+     * Get the size
+     * @return The number of columns and rows in each chunk
+     */
+    public int getSize()
+    {
+        return this.size;
+    }
+    
+    /**
+     * Get the generated count
+     * @return The total number of chunks generated so far
+     */
+    public int getGenerated()
+    {
+        return this.generated;
+    }
+    
+    /**
+     * Get the evicted count
+     * @return The total number of chunks removed from memory so far
+     */
+    public int getEvicted()
+    {
+        return this.evicted;
+    }
+    
+    /**
+     * Is this location within the bounds of the world?
+     * @param col World column
+     * @param row World row
+     * @return true = yes, false = no
+     */
+    public boolean hasBounds(final int col, final int row)
+    {
+        return hasChunk(getChunkIndex(col), getChunkIndex(row));
+    }
+    
+    /**
+     * Get the room at the specified world location.<br>
+     * The chunk is generated if it is not in memory.<br>
+     * The room reports the world (column, row), but is only valid while its chunk stays in memory
+     * @param col World column
+     * @param row World row
+     * @return The room at the specified location, if the location is out of bounds, null is returned
+     * @throws Exception If the chunk fails to generate
+     */
+    public Room getRoom(final int col, final int row) throws Exception
+    {
+        if (!hasBounds(col, row))
+            return null;
+        
+        final Maze chunk = getChunk(getChunkIndex(col), getChunkIndex(row));
+        
+        return new Room(chunk.getGrid(), chunk.getGrid().getIndex(col - (getChunkIndex(col) * size), row - (getChunkIndex(row) * size)), col, row);
+    }
+    
+    /**
+     * Do we have the wall at the specified world location?
+     * @param col World column
+     * @param row World row
+     * @param wall The wall we want to check
+     * @return true if the wall exists or the location is out of bounds, false otherwise
+     * @throws Exception If the chunk fails to generate
+     */
+    public boolean hasWall(final int col, final int row, final Wall wall) throws Exception
+    {
+        if (!hasBounds(col, row))
+            return true;
+        
+        final Maze chunk = getChunk(getChunkIndex(col), getChunkIndex(row));
+        
+        return chunk.getGrid().hasWall(chunk.getGrid().getIndex(col - (getChunkIndex(col) * size), row - (getChunkIndex(row) * size)), wall);
+    }
+    
+    /**
+     * Get the chunk, generating it if it is not in memory
+     * @param chunkCol Chunk column
+     * @param chunkRow Chunk row
+     * @return The maze of the chunk
+     * @throws Exception If the chunk is out of bounds or fails to generate
+     */
+    public Maze getChunk(final int chunkCol, final int chunkRow) throws Exception
+    {
+        if (!hasChunk(chunkCol, chunkRow))
+            throw new Exception("The chunk is out of bounds (" + chunkCol + ", " + chunkRow + ")");
+        
+        final Long key = Long.valueOf(((long)chunkCol << 32) | (chunkRow & 0xFFFFFFFFL));
+        
+        Maze chunk = chunks.get(key);
+        
+        if (chunk == null)
+        {
+            chunk = createChunk(chunkCol, chunkRow);
+            
+            //remove the least recently used chunks to make room
+            final Iterator<Map.Entry<Long, Maze>> iterator = chunks.entrySet().iterator();
+            
+            while (chunks.size() >= capacity && iterator.hasNext())
+            {
+                iterator.next().getValue().dispose();
+                iterator.remove();
+                evicted++;
+            }
+            
+            chunks.put(key, chunk);
+        }
+        
+        return chunk;
+    }
+    
+    /**
+     * Generate the chunk and open the doors shared with its neighbors
+     * @param chunkCol Chunk column
+     * @param chunkRow Chunk row
+     * @return The generated maze of the chunk
+     * @throws Exception If the chunk fails to generate
+     */
+    private Maze createChunk(final int chunkCol, final int chunkRow) throws Exception
+    {
+        final Maze chunk = algorithm.create(size, size);
+        
+        chunk.generate(new Random(hash(chunkCol, chunkRow, 0)));
+        
+        final Grid grid = chunk.getGrid();
+        
+        //the door on each edge is owned by the chunk to the west or north of it
+        if (hasChunk(chunkCol + 1, chunkRow))
+            grid.removeWall(grid.getIndex(size - 1, getDoor(chunkCol, chunkRow, true)), Wall.East);
+        if (hasChunk(chunkCol - 1, chunkRow))
+            grid.removeWall(grid.getIndex(0, getDoor(chunkCol - 1, chunkRow, true)), Wall.West);
+        if (hasChunk(chunkCol, chunkRow + 1))
+            grid.removeWall(grid.getIndex(getDoor(chunkCol, chunkRow, false), size - 1), Wall.South);
+        if (hasChunk(chunkCol, chunkRow - 1))
+            grid.removeWall(grid.getIndex(getDoor(chunkCol, chunkRow - 1, false), 0), Wall.North);
+        
+        generated++;
+        
+        return chunk;
+    }
+    
+    /**
+     * Get the location of the door on the east or south edge of the chunk
+     * @param chunkCol Chunk column
+     * @param chunkRow Chunk row
+     * @param east true for the door on the east edge, false for the door on the south edge
+     * @return The row (east edge) or column (south edge) of the door within the chunk
+     */
+    private int getDoor(final int chunkCol, final int chunkRow, final boolean east)
+    {
+        return (int)((hash(chunkCol, chunkRow, (east) ? 1 : 2) >>> 1) % size);
+    }
+    
+    /**
+     * Is the chunk within the bounds of the world?
+     * @param chunkCol Chunk column
+     * @param chunkRow Chunk row
+     * @return true = yes, false = no
+     */
+    private boolean hasChunk(final int chunkCol, final int chunkRow)
+    {
+        if (chunkCols != UNBOUNDED && (chunkCol < 0 || chunkCol >= chunkCols))
+            return false;
+        if (chunkRows != UNBOUNDED && (chunkRow < 0 || chunkRow >= chunkRows))
+            return false;
+        
+        return true;
+    }
+    
+    /**
+     * Get the chunk index of the world location, rounding down for negative locations
+     * @param location World column or row
+     * @return The chunk column or row
+     */
+    private int getChunkIndex(final int location)
+    {
+        return (location >= 0) ? location / size : ((location + 1) / size) - 1;
+    }
+    
+    /**
+     * Hash the world seed with the chunk location
+     * @param chunkCol Chunk column
+     * @param chunkRow Chunk row
+     * @param salt Value used to get different hashes for the same chunk
+     * @return The hash
+     */
+    private long hash(final int chunkCol, final int chunkRow, final int salt)
+    {
+        long z = seed ^ SeedMixer.mix(((long)chunkCol << 32) | (chunkRow & 0xFFFFFFFFL), salt);
+        return SeedMixer.mix(z, 0);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,146 @@
+package com.gamesbykevin.androidframework.maze;
+
+import com.gamesbykevin.androidframework.resources.Disposable;
+
+/**
+ * Disjoint set (union-find) of room indexes.<br>
+ * Uses path compression and union by rank so each operation is amortized constant time
+ * @author GOD
+ */
+public class DisjointSet implements Disposable
+{
+    //the parent of each element, a root is its own parent
+    private int[] parents;
+    
+    //the upper bound of the height of each tree
+    private byte[] ranks;
+    
+    //the number of unique sets
+    private int count;
+    
+    /**
+     * Create a new disjoint set where every element is in a set of its own
+     * @param size The total number of elements
+     */
+    public DisjointSet(final int size)
+    {
+        this.parents = new int[size];
+        this.ranks = new byte[size];
+        
+        reset();
+    }
+    
+    /**
+     * Place every element back in a set of its own
+     */
+    public final void reset()
+    {
+        for (int index = 0; index < parents.length; index++)
+        {
+            parents[index] = index;
+            ranks[index] = 0;
+        }
+        
+        this.count = parents.length;
+    }
+    
+    @Override
+    public void dispose()
+    {
+        this.parents = null;
+        this.ranks = null;
+    }
+    
+    /**
+     * Get the size
+     * @return The total number of elements
+     */
+    public int getSize()
+    {
+        return this.parents.length;
+    }
+    
+    /**
+     * Get the count
+     * @return The total number of unique sets
+     */
+    public int getCount()
+    {
+        return this.count;
+    }
+    
+    /**
+     * Find the set of the element
+     * @param index The element we want to check
+     * @return The root element identifying the set
+     */
+    public int find(final int index)
+    {
+        //locate the root
+        int root = index;
+        
+        while (parents[root] != root)
+        {
+            root = parents[root];
+        }
+        
+        //now compress the path so the next search is faster
+        int current = index;
+        
+        while (parents[current] != root)
+        {
+            final int next = parents[current];
+            parents[current] = root;
+            current = next;
+        }
+        
+        return root;
+    }
+    
+    /**
+     * Are the elements part of the same set?
+     * @param index1 Element 1
+     * @param index2 Element 2
+     * @return true if both elements are in the same set, false otherwise
+     */
+    public boolean hasSet(final int index1, final int index2)
+    {
+        return (find(index1) == find(index2));
+    }
+    
+    /**
+     * Join the sets of both elements
+     * @param index1 Element 1
+     * @param index2 Element 2
+     * @return true if the sets were joined, false if the elements were already part of the same set
+     */
+    public boolean union(final int index1, final int index2)
+    {
+        final int root1 = find(index1);
+        final int root2 = find(index2);
+        
+        //already the same set
+        if (root1 == root2)
+            return false;
+        
+        //the shorter tree is placed under the taller tree
+        if (ranks[root1] < ranks[root2])
+        {
+            parents[root1] = root2;
+        }
+        else if (ranks[root1] > ranks[root2])
+        {
+            parents[root2] = root1;
+        }
+        else
+        {
+            parents[root2] = root1;
+            ranks[root1]++;
+        }
+        
+        //we now have 1 less set
+        this.count--;
+        
+        return true;
+    }
+}
@@ -0,0 +1,263 @@
+package com.gamesbykevin.androidframework.maze;
+
+import com.gamesbykevin.androidframework.maze.Room.Wall;
+import com.gamesbykevin.androidframework.resources.Disposable;
+
+import java.util.Arrays;
+
+/**
+ * Breadth first distance field over the passages of a {@link Grid}.<br>
+ * The distance of each room is the number of steps from the closest source, and the field can have any number of sources.<br>
+ * The buffers are created once, so the field can be calculated again every frame without creating any objects.<br>
+ * Only the rooms reached by the previous calculation are reset, so a search that stops early stays cheap.
+ * @author GOD
+ */
+public class DistanceField implements Disposable
+{
+    /**
+     * The distance of a room that has not been reached
+     */
+    public static final int UNREACHED = -1;
+    
+    /**
+     * Use this limit when the search should not stop at any distance
+     */
+    public static final int NO_LIMIT = Integer.MAX_VALUE;
+    
+    /**
+     * Use this target when the search should not stop at any room
+     */
+    public static final int NO_TARGET = -1;
+    
+    //the grid containing the walls
+    private Grid grid;
+    
+    //the distance of each room
+    private int[] distances;
+    
+    //the rooms in the order they were reached, each room is only added once so it never wraps
+    private int[] queue;
+    
+    //the number of rooms in the queue
+    private int tail = 0;
+    
+    //the number of rooms in the queue that have been expanded
+    private int head = 0;
+    
+    //the room farthest from the sources
+    private int farthest = NO_TARGET;
+    
+    //temporary list of neighbors, one for each side of a room
+    private int[] neighbors;
+    
+    /**
+     * Create a new distance field
+     * @param grid The grid containing the walls of the maze
+     */
+    public DistanceField(final Grid grid)
+    {
+        this.grid = grid;
+        this.distances = new int[grid.getSize()];
+        this.queue = new int[grid.getSize()];
+        this.neighbors = new int[grid.getSides()];
+        
+        Arrays.fill(this.distances, UNREACHED);
+    }
+    
+    @Override
+    public void dispose()
+    {
+        this.grid = null;
+        this.distances = null;
+        this.queue = null;
+        this.neighbors = null;
+    }
+    
+    /**
+     * Reset the distance of every room reached by the previous calculation and remove all sources
+     */
+    public void clear()
+    {
+        for (int i = 0; i < tail; i++)
+        {
+            distances[queue[i]] = UNREACHED;
+        }
+        
+        this.head = 0;
+        this.tail = 0;
+        this.farthest = NO_TARGET;
+    }
+    
+    /**
+     * Add a source.<br>
+     * Sources are added after {@link #clear()} and before the field is calculated
+     * @param index The index of the room that will have a distance of 0
+     */
+    public void addSource(final int index)
+    {
+        if (distances[index] != UNREACHED)
+            return;
+        
+        distances[index] = 0;
+        queue[tail++] = index;
+    }
+    
+    /**
+     * Calculate the distance of every room reachable from the single source
+     * @param source The index of the room that will have a distance of 0
+     * @return The number of rooms reached
+     */
+    public int calculate(final int source)
+    {
+        clear();
+        addSource(source);
+        
+        return calculate(NO_TARGET, NO_LIMIT);
+    }
+    
+    /**
+     * Calculate the distance of every room reachable from the sources
+     * @return The number of rooms reached
+     */
+    public int calculate()
+    {
+        return calculate(NO_TARGET, NO_LIMIT);
+    }
+    
+    /**
+     * Calculate the distance of the rooms reachable from the sources.<br>
+     * The search stops as soon as the target is reached, and rooms beyond the limit are not reached.
+     * @param target The index of the room that ends the search, or {@link #NO_TARGET}
+     * @param limit The largest distance that will be reached, or {@link #NO_LIMIT}
+     * @return The number of rooms reached
+     */
+    public int calculate(final int target, final int limit)
+    {
+        final int cols = grid.getCols();
+        final int size = grid.getSize();
+        
+        while (head < tail)
+        {
+            final int index = queue[head];
+            
+            //stop once the target is reached
+            if (index == target)
+                break;
+            
+            head++;
+            
+            final int distance = distances[index] + 1;
+            
+            //the neighbors would be beyond our limit
+            if (distance > limit)
+                continue;
+            
+            //other topologies check every side of the room
+            if (!grid.isSquare())
+            {
+                final int count = grid.getPassages(index, neighbors);
+                
+                for (int i = 0; i < count; i++)
+                {
+                    if (distances[neighbors[i]] == UNREACHED)
+                    {
+                        distances[neighbors[i]] = distance;
+                        queue[tail++] = neighbors[i];
+                    }
+                }
+                
+                continue;
+            }
+            
+            final int walls = grid.getWalls(index);
+            final int col = index % cols;
+            
+            //add each neighbor of the square room that is not blocked by a wall and not yet reached
+            if ((walls & Wall.North.getBit()) == 0 && index >= cols && distances[index - cols] == UNREACHED)
+            {
+                distances[index - cols] = distance;
+                queue[tail++] = index - cols;
+            }
+            if ((walls & Wall.South.getBit()) == 0 && index + cols < size && distances[index + cols] == UNREACHED)
+            {
+                distances[index + cols] = distance;
+                queue[tail++] = index + cols;
+            }
+            if ((walls & Wall.West.getBit()) == 0 && col > 0 && distances[index - 1] == UNREACHED)
+            {
+                distances[index - 1] = distance;
+                queue[tail++] = index - 1;
+            }
+            if ((walls & Wall.East.getBit()) == 0 && col < cols - 1 && distances[index + 1] == UNREACHED)
+            {
+                distances[index + 1] = distance;
+                queue[tail++] = index + 1;
+            }
+        }
+        
+        //the rooms are reached in order of distance, so the farthest rooms are at the end of the queue
+        this.farthest = NO_TARGET;
+        
+        if (tail > 0)
+        {
+            final int max = distances[queue[tail - 1]];
+            
+            //when there is a tie use the lowest index
+            for (int i = tail - 1; i >= 0 && distances[queue[i]] == max; i--)
+            {
+                if (farthest == NO_TARGET || queue[i] < farthest)
+                    farthest = queue[i];
+            }
+        }
+        
+        return tail;
+    }
+    
+    /**
+     * Get the distance
+     * @param index The index of the room
+     * @return The number of steps from the closest source, or {@link #UNREACHED}
+     */
+    public int getDistance(final int index)
+    {
+        return this.distances[index];
+    }
+    
+    /**
+     * Get the reached count
+     * @return The number of rooms reached by the last calculation
+     */
+    public int getReached()
+    {
+        return this.tail;
+    }
+    
+    /**
+     * Get the reached room
+     * @param position The position in the order the rooms were reached, from 0 to {@link #getReached()} - 1
+     * @return The index of the room
+     */
+    public int getReached(final int position)
+    {
+        return this.queue[position];
+    }
+    
+    /**
+     * Get the farthest room.<br>
+     * If multiple rooms share the largest distance, the lowest index is returned
+     * @return The index of the reached room farthest from the sources, or {@link #NO_TARGET} if nothing was reached
+     */
+    public int getFarthest()
+    {
+        return this.farthest;
+    }
+    
+    /**
+     * Get the max distance
+     * @return The distance of the farthest room, or {@link #UNREACHED} if nothing was reached
+     */
+    public int getMaxDistance()
+    {
+        return (farthest == NO_TARGET) ? UNREACHED : distances[farthest];
+    }
+}
\ No newline at end of file
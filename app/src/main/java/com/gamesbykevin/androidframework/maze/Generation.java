@@ -0,0 +1,139 @@
+package com.gamesbykevin.androidframework.maze;
+
+import com.gamesbykevin.androidframework.util.Progress;
+
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A maze being generated on a background thread.<br>
+ * The maze must not be accessed until it is handed over by {@link #getMaze()} or {@link #get()}.<br>
+ * Use {@link #cancel(boolean)} to stop the generation.
+ * @author GOD
+ */
+public class Generation extends FutureTask<Maze>
+{
+    //the latest progress count published by the worker thread
+    private final AtomicInteger count;
+    
+    //the maze, only assigned once it has been generated
+    private final AtomicReference<Maze> result;
+    
+    //the progress displayed by the caller, separate from the progress the worker updates
+    private final Progress progress;
+    
+    /**
+     * Create a new maze generation
+     * @param maze The maze we want to generate
+     * @param random Object used to make random decisions
+     * @param interval The number of generation steps between each progress update
+     * @param listener Listener notified on the worker thread after each progress update, may be null
+     */
+    protected Generation(final Maze maze, final Random random, final int interval, final IMazeListener listener)
+    {
+        this(maze, random, interval, listener, new AtomicInteger(), new AtomicReference<Maze>());
+    }
+    
+    private Generation(final Maze maze, final Random random, final int interval, final IMazeListener listener, final AtomicInteger count, final AtomicReference<Maze> result)
+    {
+        super(new Worker(maze, random, interval, listener, count, result));
+        
+        this.count = count;
+        this.result = result;
+        
+        //the caller will have a progress object of its own
+        this.progress = new Progress(maze.getProgress().getGoal());
+    }
+    
+    /**
+     * Get the progress.<br>
+     * The progress is updated with the latest count published by the worker thread,<br>
+     * so it is safe to render with {@link Progress#render(android.graphics.Canvas)}.<br>
+     * This is meant to be called from a single thread, typically the thread rendering the game.
+     * @return The progress of the maze generation
+     */
+    public Progress getProgress()
+    {
+        this.progress.setCount(count.get());
+        
+        return this.progress;
+    }
+    
+    /**
+     * Get the maze
+     * @return The generated maze, null if the maze has not been generated yet
+     */
+    public Maze getMaze()
+    {
+        return this.result.get();
+    }
+    
+    /**
+     * Has the maze been generated?
+     * @return true if the maze is ready to be used, false otherwise
+     */
+    public boolean isGenerated()
+    {
+        return (getMaze() != null);
+    }
+    
+    /**
+     * The logic run on the worker thread
+     */
+    private static class Worker implements Callable<Maze>
+    {
+        //the maze to generate
+        private final Maze maze;
+        
+        //object used to make random decisions
+        private final Random random;
+        
+        //the number of generation steps between each progress update
+        private final int interval;
+        
+        //listener notified after each progress update
+        private final IMazeListener listener;
+        
+        //where we publish the progress count and the finished maze
+        private final AtomicInteger count;
+        private final AtomicReference<Maze> result;
+        
+        private Worker(final Maze maze, final Random random, final int interval, final IMazeListener listener, final AtomicInteger count, final AtomicReference<Maze> result)
+        {
+            this.maze = maze;
+            this.random = random;
+            this.interval = interval;
+            this.listener = listener;
+            this.count = count;
+            this.result = result;
+        }
+        
+        @Override
+        public Maze call() throws Exception
+        {
+            while (!maze.isGenerated())
+            {
+                //stop if the generation was cancelled
+                if (Thread.currentThread().isInterrupted())
+                    throw new InterruptedException("The maze generation was cancelled");
+                
+                //generate a batch of steps
+                maze.generate(random, interval);
+                
+                //publish the progress
+                count.set(maze.getProgress().getCount());
+                
+                if (listener != null)
+                    listener.onProgress(maze);
+            }
+            
+            //hand over the finished maze
+            result.set(maze);
+            
+            return maze;
+        }
+    }
+}
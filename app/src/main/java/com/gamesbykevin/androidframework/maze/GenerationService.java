@@ -0,0 +1,104 @@
+package com.gamesbykevin.androidframework.maze;
+
+import com.gamesbykevin.androidframework.resources.Disposable;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Generate mazes on background threads so the game loop is not held up by the maze generation
+ * @author GOD
+ */
+public class GenerationService implements Disposable
+{
+    //the threads that will generate our mazes
+    private ExecutorService executor;
+    
+    //the number of generation steps between each progress update
+    private int interval = Maze.DEFAULT_LISTENER_INTERVAL;
+    
+    /**
+     * Create a generation service with a single background thread
+     */
+    public GenerationService()
+    {
+        this(1);
+    }
+    
+    /**
+     * Create a generation service
+     * @param threads The number of background threads used to generate mazes
+     */
+    public GenerationService(final int threads)
+    {
+        this.executor = Executors.newFixedThreadPool(threads, new ThreadFactory()
+        {
+            @Override
+            public Thread newThread(final Runnable runnable)
+            {
+                final Thread thread = new Thread(runnable, "maze-generation");
+                
+                //don't keep the application alive and don't compete with the game loop
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                
+                return thread;
+            }
+        });
+    }
+    
+    /**
+     * Assign how often the progress is published
+     * @param interval The number of generation steps between each progress update
+     * @throws Exception If the interval is less than 1
+     */
+    public void setInterval(final int interval) throws Exception
+    {
+        if (interval < 1)
+            throw new Exception("The interval must be at least 1");
+        
+        this.interval = interval;
+    }
+    
+    /**
+     * Start generating the maze on a background thread
+     * @param maze The maze we want to generate, it must not be accessed until the generation is complete
+     * @param random Object used to make random decisions
+     * @return The generation that can be used to check the progress, cancel, or get the maze
+     */
+    public Generation submit(final Maze maze, final Random random)
+    {
+        return submit(maze, random, null);
+    }
+    
+    /**
+     * Start generating the maze on a background thread
+     * @param maze The maze we want to generate, it must not be accessed until the generation is complete
+     * @param random Object used to make random decisions
+     * @param listener Listener notified on the background thread after each progress update, may be null
+     * @return The generation that can be used to check the progress, cancel, or get the maze
+     */
+    public Generation submit(final Maze maze, final Random random, final IMazeListener listener)
+    {
+        final Generation generation = new Generation(maze, random, interval, listener);
+        
+        executor.execute(generation);
+        
+        return generation;
+    }
+    
+    /**
+     * Stop all background threads, any generation in progress will be cancelled
+     */
+    @Override
+    public void dispose()
+    {
+        if (executor != null)
+        {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+}
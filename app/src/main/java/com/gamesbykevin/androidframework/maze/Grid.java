@@ -0,0 +1,1015 @@
+package com.gamesbykevin.androidframework.maze;
+
+import com.gamesbykevin.androidframework.maze.Room.Wall;
+import com.gamesbykevin.androidframework.maze.topology.ITopology;
+import com.gamesbykevin.androidframework.maze.topology.SquareTopology;
+import com.gamesbykevin.androidframework.resources.Disposable;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Compact storage for every room in a maze.<br>
+ * Each room is identified by an index (row * cols + col).<br>
+ * The walls are stored as 4 bits per room (2 rooms per byte), the visited flags in a bit set<br>
+ * and the costs in a primitive array, so no objects are created per room.<br>
+ * A grid can also be created for an {@link ITopology} (hexagons, triangles, masked shapes), the side of a wall is then its bit,<br>
+ * and cells with more than 4 sides use a byte per room. Square grids keep their own code paths so they are not slowed down.
+ * @author GOD
+ */
+public class Grid implements Disposable
+{
+    //the dimensions of the grid
+    private final int cols, rows;
+    
+    //the shape of the rooms and how they connect
+    private final ITopology topology;
+    
+    //are the rooms squares with every room part of the grid
+    private final boolean square;
+    
+    //are the walls stored as a byte per room instead of 4 bits
+    private final boolean wide;
+    
+    //the bits representing all walls of a room
+    private final int wallsAll;
+    
+    //the index of each room part of the grid, only created when needed for a masked topology
+    private int[] active;
+    
+    //the walls of each room, 4 bits per room (or a byte per room when wide)
+    private byte[] walls;
+    
+    //the visited flag of each room, 1 bit per room
+    private long[] visited;
+    
+    //the number of rooms currently flagged as visited
+    private int visitedCount = 0;
+    
+    //the cost of each room
+    private int[] costs;
+    
+    //the set label of each room, only created when needed, until then each room is a set of its own
+    private int[] sets;
+    
+    //the unique identifier of each set label, only created when needed
+    private UUID[] ids;
+    
+    //the number of times the walls have changed
+    private int modifications = 0;
+    
+    //objects notified when the walls change, only the first listenerCount are assigned
+    private IGridListener[] listeners = new IGridListener[2];
+    
+    //the number of listeners
+    private int listenerCount = 0;
+    
+    //the rooms whose walls or visited flag changed, null if we are not tracking changes
+    private IndexSet dirty;
+    
+    /**
+     * The bits representing all 4 walls of a room
+     */
+    public static final int WALLS_ALL = 0x0F;
+    
+    /**
+     * Create a new grid with no walls and no rooms visited
+     * @param cols Total columns
+     * @param rows Total rows
+     * @throws IllegalArgumentException If the dimensions are not at least 1
+     */
+    public Grid(final int cols, final int rows)
+    {
+        this(new SquareTopology(cols, rows));
+    }
+    
+    /**
+     * Create a new grid with no walls and no rooms visited
+     * @param topology The shape of the rooms and how they connect
+     * @throws IllegalArgumentException If the dimensions are not at least 1, or the rooms have more than 8 sides
+     */
+    public Grid(final ITopology topology)
+    {
+        if (topology.getCols() < 1 || topology.getRows() < 1)
+            throw new IllegalArgumentException("The grid must contain at least 1 column and 1 row");
+        if (topology.getSides() > 8)
+            throw new IllegalArgumentException("The rooms can't have more than 8 sides");
+        
+        this.cols = topology.getCols();
+        this.rows = topology.getRows();
+        this.topology = topology;
+        this.square = (topology instanceof SquareTopology);
+        this.wide = (topology.getSides() > 4);
+        this.wallsAll = (1 << topology.getSides()) - 1;
+        
+        //2 rooms share a single byte, unless a room needs more than 4 bits
+        this.walls = new byte[(wide) ? getSize() : (getSize() + 1) / 2];
+        
+        //64 rooms share a single long
+        this.visited = new long[(getSize() + 63) / 64];
+        
+        //every room starts with the minimum cost
+        this.costs = new int[getSize()];
+    }
+    
+    @Override
+    public void dispose()
+    {
+        this.walls = null;
+        this.visited = null;
+        this.costs = null;
+        this.sets = null;
+        this.ids = null;
+        this.active = null;
+        this.listeners = null;
+        this.listenerCount = 0;
+        
+        if (this.dirty != null)
+        {
+            this.dirty.dispose();
+            this.dirty = null;
+        }
+    }
+    
+    /**
+     * Assign the tracking of changes.<br>
+     * When tracking, every room whose walls or visited flag change is added to the dirty set
+     * @param tracking true if we want to track changes, false otherwise
+     */
+    public void setTracking(final boolean tracking)
+    {
+        if (tracking && this.dirty == null)
+        {
+            //every room starts dirty since nothing has been drawn yet
+            this.dirty = new IndexSet(getSize());
+            markDirtyAll();
+        }
+        else if (!tracking && this.dirty != null)
+        {
+            this.dirty.dispose();
+            this.dirty = null;
+        }
+    }
+    
+    /**
+     * Get the dirty rooms.<br>
+     * The set is owned by the grid, clear it once the rooms have been handled
+     * @return The rooms changed since the set was last cleared, null if we are not tracking changes
+     */
+    public IndexSet getDirty()
+    {
+        return this.dirty;
+    }
+    
+    /**
+     * Mark every room as dirty, if we are tracking changes
+     */
+    private void markDirtyAll()
+    {
+        if (this.dirty == null)
+            return;
+        
+        for (int index = 0; index < getSize(); index++)
+        {
+            this.dirty.add(index);
+        }
+    }
+    
+    /**
+     * Add a listener.<br>
+     * Every listener is notified when the walls change, adding the same listener twice has no effect
+     * @param listener The object notified when the walls change
+     */
+    public void addListener(final IGridListener listener)
+    {
+        if (listener == null || hasListener(listener))
+            return;
+        
+        //grow the array when full, a grid rarely has more than a couple of listeners
+        if (listenerCount == listeners.length)
+            listeners = Arrays.copyOf(listeners, listeners.length * 2);
+        
+        listeners[listenerCount++] = listener;
+    }
+    
+    /**
+     * Remove a listener
+     * @param listener The object we no longer want notified
+     */
+    public void removeListener(final IGridListener listener)
+    {
+        for (int i = 0; i < listenerCount; i++)
+        {
+            if (listeners[i] == listener)
+            {
+                //keep the order the remaining listeners are notified
+                System.arraycopy(listeners, i + 1, listeners, i, listenerCount - i - 1);
+                listeners[--listenerCount] = null;
+                return;
+            }
+        }
+    }
+    
+    /**
+     * Is the listener assigned?
+     * @param listener The object we want to check
+     * @return true if the listener is notified when the walls change, false otherwise
+     */
+    public boolean hasListener(final IGridListener listener)
+    {
+        for (int i = 0; i < listenerCount; i++)
+        {
+            if (listeners[i] == listener)
+                return true;
+        }
+        
+        return false;
+    }
+    
+    /**
+     * Get the columns
+     * @return The total number of columns in this grid
+     */
+    public int getCols()
+    {
+        return this.cols;
+    }
+    
+    /**
+     * Get the rows
+     * @return The total number of rows in this grid
+     */
+    public int getRows()
+    {
+        return this.rows;
+    }
+    
+    /**
+     * Get the size
+     * @return The total number of rooms in this grid
+     */
+    public int getSize()
+    {
+        return (getCols() * getRows());
+    }
+    
+    /**
+     * Get the topology
+     * @return The shape of the rooms and how they connect
+     */
+    public ITopology getTopology()
+    {
+        return this.topology;
+    }
+    
+    /**
+     * Is the grid square?
+     * @return true if the rooms are squares and every room is part of the grid, false otherwise
+     */
+    public boolean isSquare()
+    {
+        return this.square;
+    }
+    
+    /**
+     * Get the sides
+     * @return The number of sides (possible walls) of each room
+     */
+    public int getSides()
+    {
+        return topology.getSides();
+    }
+    
+    /**
+     * Get the bits of all walls
+     * @return The bits representing every wall of a room, {@link #WALLS_ALL} for a square grid
+     */
+    public int getWallsAll()
+    {
+        return this.wallsAll;
+    }
+    
+    /**
+     * Do we have the room?
+     * @param index The index of the room
+     * @return true if the room is part of the grid, false if it is outside the bounds or excluded by the topology
+     */
+    public boolean hasRoom(final int index)
+    {
+        if (square)
+            return (index >= 0 && index < getSize());
+        
+        return topology.hasCell(index);
+    }
+    
+    /**
+     * Get the active count
+     * @return The number of rooms part of the grid
+     */
+    public int getActiveCount()
+    {
+        return (square) ? getSize() : topology.getActiveCount();
+    }
+    
+    /**
+     * Get a random room.<br>
+     * For a grid where every room is part of it a random column then a random row are picked,<br>
+     * the same random numbers the generators have always used for their first room, so a seed creates the same maze
+     * @param random Object used to make random decisions
+     * @return The index of a random room part of the grid
+     */
+    public int getRandomRoom(final Random random)
+    {
+        if (getActiveCount() == getSize())
+        {
+            final int col = random.nextInt(getCols());
+            final int row = random.nextInt(getRows());
+            
+            return getIndex(col, row);
+        }
+        
+        //create the list of rooms if not exists
+        if (this.active == null)
+        {
+            this.active = new int[getActiveCount()];
+            
+            int count = 0;
+            
+            for (int index = 0; index < getSize(); index++)
+            {
+                if (topology.hasCell(index))
+                    this.active[count++] = index;
+            }
+        }
+        
+        return this.active[random.nextInt(this.active.length)];
+    }
+    
+    /**
+     * Get the index of the location
+     * @param col Column
+     * @param row Row
+     * @return The index of the room at the specified (column, row)
+     */
+    public int getIndex(final int col, final int row)
+    {
+        return (row * getCols()) + col;
+    }
+    
+    /**
+     * Get the column
+     * @param index The index of the room
+     * @return The column of the room
+     */
+    public int getCol(final int index)
+    {
+        return (index % getCols());
+    }
+    
+    /**
+     * Get the row
+     * @param index The index of the room
+     * @return The row of the room
+     */
+    public int getRow(final int index)
+    {
+        return (index / getCols());
+    }
+    
+    /**
+     * Get the neighbor
+     * @param index The index of the room
+     * @param direction The direction of the neighbor
+     * @return The index of the neighboring room, -1 if the neighbor is out of bounds
+     */
+    public int getNeighbor(final int index, final Wall direction)
+    {
+        switch (direction)
+        {
+            case North:
+                return (index >= getCols()) ? index - getCols() : -1;
+            
+            case South:
+                return (index + getCols() < getSize()) ? index + getCols() : -1;
+            
+            case West:
+                return (getCol(index) > 0) ? index - 1 : -1;
+            
+            default:
+                return (getCol(index) < getCols() - 1) ? index + 1 : -1;
+        }
+    }
+    
+    /**
+     * Get the neighbor
+     * @param index The index of the room
+     * @param side The side of the room, for a square grid the ordinal of the {@link Wall}
+     * @return The index of the neighboring room, -1 if there is no neighbor on that side
+     */
+    public int getNeighbor(final int index, final int side)
+    {
+        if (!square)
+            return topology.getNeighbor(index, side);
+        
+        switch (side)
+        {
+            case 0:
+                return (index >= getCols()) ? index - getCols() : -1;
+            
+            case 1:
+                return (index + getCols() < getSize()) ? index + getCols() : -1;
+            
+            case 2:
+                return (getCol(index) > 0) ? index - 1 : -1;
+            
+            default:
+                return (getCol(index) < getCols() - 1) ? index + 1 : -1;
+        }
+    }
+    
+    /**
+     * Get the neighbors.<br>
+     * The neighbors are written in the order north, south, west, east (in order of the sides for other topologies)
+     * @param index The index of the room
+     * @param buffer Array that will contain the index of each neighbor, must have room for at least {@link #getSides()}
+     * @return The number of neighbors written to the buffer
+     */
+    public int getNeighbors(final int index, final int[] buffer)
+    {
+        int count = 0;
+        
+        if (!square)
+        {
+            for (int side = 0; side < getSides(); side++)
+            {
+                final int neighbor = topology.getNeighbor(index, side);
+                
+                if (neighbor >= 0)
+                    buffer[count++] = neighbor;
+            }
+            
+            return count;
+        }
+        
+        final int col = getCol(index);
+        
+        if (index >= getCols())
+            buffer[count++] = index - getCols();
+        if (index + getCols() < getSize())
+            buffer[count++] = index + getCols();
+        if (col > 0)
+            buffer[count++] = index - 1;
+        if (col < getCols() - 1)
+            buffer[count++] = index + 1;
+        
+        return count;
+    }
+    
+    /**
+     * Get the neighbors that match the visited flag.<br>
+     * The neighbors are written in the order north, south, west, east (in order of the sides for other topologies)
+     * @param index The index of the room
+     * @param buffer Array that will contain the index of each neighbor, must have room for at least {@link #getSides()}
+     * @param visited true if we want the visited neighbors, false if we want the neighbors not visited
+     * @return The number of neighbors written to the buffer
+     */
+    public int getNeighbors(final int index, final int[] buffer, final boolean visited)
+    {
+        int count = 0;
+        
+        if (!square)
+        {
+            for (int side = 0; side < getSides(); side++)
+            {
+                final int neighbor = topology.getNeighbor(index, side);
+                
+                if (neighbor >= 0 && hasVisited(neighbor) == visited)
+                    buffer[count++] = neighbor;
+            }
+            
+            return count;
+        }
+        
+        final int col = getCol(index);
+        
+        if (index >= getCols() && hasVisited(index - getCols()) == visited)
+            buffer[count++] = index - getCols();
+        if (index + getCols() < getSize() && hasVisited(index + getCols()) == visited)
+            buffer[count++] = index + getCols();
+        if (col > 0 && hasVisited(index - 1) == visited)
+            buffer[count++] = index - 1;
+        if (col < getCols() - 1 && hasVisited(index + 1) == visited)
+            buffer[count++] = index + 1;
+        
+        return count;
+    }
+    
+    /**
+     * Get the neighbors in the order of the sides.<br>
+     * Each generator checks the neighbors in its own order, keeping that order means a seed always creates the same maze
+     * @param index The index of the room
+     * @param buffer Array that will contain the index of each neighbor, must have room for at least {@link #getSides()}
+     * @param order The sides to check in order, the ordinal of each {@link Wall}. Only used by a square grid, other topologies check every side in order
+     * @return The number of neighbors written to the buffer
+     */
+    public int getNeighbors(final int index, final int[] buffer, final int[] order)
+    {
+        if (!square)
+            return getNeighbors(index, buffer);
+        
+        int count = 0;
+        
+        for (int i = 0; i < order.length; i++)
+        {
+            final int neighbor = getNeighbor(index, order[i]);
+            
+            if (neighbor >= 0)
+                buffer[count++] = neighbor;
+        }
+        
+        return count;
+    }
+    
+    /**
+     * Get the neighbors that match the visited flag, in the order of the sides.<br>
+     * Each generator checks the neighbors in its own order, keeping that order means a seed always creates the same maze
+     * @param index The index of the room
+     * @param buffer Array that will contain the index of each neighbor, must have room for at least {@link #getSides()}
+     * @param order The sides to check in order, the ordinal of each {@link Wall}. Only used by a square grid, other topologies check every side in order
+     * @param visited true if we want the visited neighbors, false if we want the neighbors not visited
+     * @return The number of neighbors written to the buffer
+     */
+    public int getNeighbors(final int index, final int[] buffer, final int[] order, final boolean visited)
+    {
+        if (!square)
+            return getNeighbors(index, buffer, visited);
+        
+        int count = 0;
+        
+        for (int i = 0; i < order.length; i++)
+        {
+            final int neighbor = getNeighbor(index, order[i]);
+            
+            if (neighbor >= 0 && hasVisited(neighbor) == visited)
+                buffer[count++] = neighbor;
+        }
+        
+        return count;
+    }
+    
+    /**
+     * Get the passages.<br>
+     * The neighbors not blocked by a wall are written in the order north, south, west, east (in order of the sides for other topologies)
+     * @param index The index of the room
+     * @param buffer Array that will contain the index of each connected neighbor, must have room for at least {@link #getSides()}
+     * @return The number of neighbors written to the buffer
+     */
+    public int getPassages(final int index, final int[] buffer)
+    {
+        int count = 0;
+        
+        final int bits = getWalls(index);
+        
+        if (!square)
+        {
+            for (int side = 0; side < getSides(); side++)
+            {
+                if ((bits & (1 << side)) != 0)
+                    continue;
+                
+                final int neighbor = topology.getNeighbor(index, side);
+                
+                if (neighbor >= 0)
+                    buffer[count++] = neighbor;
+            }
+            
+            return count;
+        }
+        
+        final int col = getCol(index);
+        
+        if ((bits & Wall.North.getBit()) == 0 && index >= getCols())
+            buffer[count++] = index - getCols();
+        if ((bits & Wall.South.getBit()) == 0 && index + getCols() < getSize())
+            buffer[count++] = index + getCols();
+        if ((bits & Wall.West.getBit()) == 0 && col > 0)
+            buffer[count++] = index - 1;
+        if ((bits & Wall.East.getBit()) == 0 && col < getCols() - 1)
+            buffer[count++] = index + 1;
+        
+        return count;
+    }
+    
+    /**
+     * Join the rooms.<br>
+     * We will remove the wall from both rooms to create a passage.
+     * @param index1 The index of room 1
+     * @param index2 The index of room 2
+     * @throws IllegalArgumentException If the rooms are not neighbors
+     */
+    public void join(final int index1, final int index2)
+    {
+        if (!square)
+        {
+            for (int side = 0; side < getSides(); side++)
+            {
+                if (topology.getNeighbor(index1, side) == index2)
+                {
+                    removeWall(index1, side);
+                    removeWall(index2, topology.getOpposite(index1, side));
+                    return;
+                }
+            }
+            
+            throw new IllegalArgumentException("The rooms are not neighbors");
+        }
+        
+        if (index2 == index1 + getCols())
+        {
+            removeWall(index1, Wall.South);
+            removeWall(index2, Wall.North);
+        }
+        else if (index2 == index1 - getCols())
+        {
+            removeWall(index1, Wall.North);
+            removeWall(index2, Wall.South);
+        }
+        else if (index2 == index1 + 1 && getRow(index1) == getRow(index2))
+        {
+            removeWall(index1, Wall.East);
+            removeWall(index2, Wall.West);
+        }
+        else if (index2 == index1 - 1 && getRow(index1) == getRow(index2))
+        {
+            removeWall(index1, Wall.West);
+            removeWall(index2, Wall.East);
+        }
+        else
+        {
+            throw new IllegalArgumentException("The rooms are not neighbors");
+        }
+    }
+    
+    /**
+     * Get the walls
+     * @param index The index of the room
+     * @return The bits of the walls the room has, see {@link Wall#getBit()} (bit (1 << side) for other topologies)
+     */
+    public int getWalls(final int index)
+    {
+        if (wide)
+            return (walls[index] & wallsAll);
+        
+        return (walls[index >> 1] >> ((index & 1) << 2)) & wallsAll;
+    }
+    
+    /**
+     * Assign the walls
+     * @param index The index of the room
+     * @param bits The bits of the walls the room will have, see {@link Wall#getBit()} (bit (1 << side) for other topologies)
+     */
+    public void setWalls(final int index, final int bits)
+    {
+        if (wide)
+        {
+            walls[index] = (byte)(bits & wallsAll);
+        }
+        else
+        {
+            final int shift = (index & 1) << 2;
+            
+            walls[index >> 1] = (byte)((walls[index >> 1] & ~(WALLS_ALL << shift)) | ((bits & WALLS_ALL) << shift));
+        }
+        
+        modifications++;
+        
+        if (dirty != null)
+            dirty.add(index);
+        for (int i = 0; i < listenerCount; i++)
+        {
+            listeners[i].onWallsChanged(index);
+        }
+    }
+    
+    /**
+     * Do we have the wall?
+     * @param index The index of the room
+     * @param wall The wall we want to check
+     * @return true if the wall exists, false otherwise
+     */
+    public boolean hasWall(final int index, final Wall wall)
+    {
+        return ((getWalls(index) & wall.getBit()) != 0);
+    }
+    
+    /**
+     * Do we have the wall?
+     * @param index The index of the room
+     * @param side The side of the room we want to check
+     * @return true if the wall exists, false otherwise
+     */
+    public boolean hasWall(final int index, final int side)
+    {
+        return ((getWalls(index) & (1 << side)) != 0);
+    }
+    
+    /**
+     * Add the wall to the room
+     * @param index The index of the room
+     * @param wall The wall we want to add
+     * @return true if the wall was added, false if it already existed
+     */
+    public boolean addWall(final int index, final Wall wall)
+    {
+        final int bits = getWalls(index);
+        
+        //if we already have it, it will not be added
+        if ((bits & wall.getBit()) != 0)
+            return false;
+        
+        setWalls(index, bits | wall.getBit());
+        return true;
+    }
+    
+    /**
+     * Remove the wall from the room
+     * @param index The index of the room
+     * @param wall The wall we want to remove
+     * @return true if the wall was removed, false if it did not exist
+     */
+    public boolean removeWall(final int index, final Wall wall)
+    {
+        final int bits = getWalls(index);
+        
+        //if we don't have it, it can't be removed
+        if ((bits & wall.getBit()) == 0)
+            return false;
+        
+        setWalls(index, bits & ~wall.getBit());
+        return true;
+    }
+    
+    /**
+     * Remove the wall from the room
+     * @param index The index of the room
+     * @param side The side of the room we want to remove the wall from
+     * @return true if the wall was removed, false if it did not exist
+     */
+    public boolean removeWall(final int index, final int side)
+    {
+        final int bits = getWalls(index);
+        
+        //if we don't have it, it can't be removed
+        if ((bits & (1 << side)) == 0)
+            return false;
+        
+        setWalls(index, bits & ~(1 << side));
+        return true;
+    }
+    
+    /**
+     * Fill every room with all of its walls
+     */
+    public void addAllWalls()
+    {
+        Arrays.fill(walls, (byte)0xFF);
+        
+        modifications++;
+        
+        markDirtyAll();
+        
+        notifyWallsReset();
+    }
+    
+    /**
+     * Notify every listener that the walls of every room have changed
+     */
+    private void notifyWallsReset()
+    {
+        for (int i = 0; i < listenerCount; i++)
+        {
+            listeners[i].onWallsReset();
+        }
+    }
+    
+    /**
+     * Get the modifications.<br>
+     * The value changes every time a wall is added or removed, so it can be compared to detect changes
+     * @return The number of times the walls have changed
+     */
+    public int getModifications()
+    {
+        return this.modifications;
+    }
+    
+    /**
+     * Get the number of bytes used to store the walls
+     * @return The number of bytes written by {@link #writeWalls(ByteBuffer)}
+     */
+    public int getWallsLength()
+    {
+        return this.walls.length;
+    }
+    
+    /**
+     * Write the walls of every room to the buffer.<br>
+     * The walls are copied as stored, 4 bits per room with the even index in the low bits (a byte per room when the rooms have more than 4 sides)
+     * @param buffer The buffer that will contain the walls, starting at its current position
+     */
+    public void writeWalls(final ByteBuffer buffer)
+    {
+        buffer.put(this.walls);
+    }
+    
+    /**
+     * Read the walls of every room from the buffer.<br>
+     * The walls are expected in the format of {@link #writeWalls(ByteBuffer)}
+     * @param buffer The buffer containing the walls, starting at its current position
+     */
+    public void readWalls(final ByteBuffer buffer)
+    {
+        buffer.get(this.walls);
+        
+        modifications++;
+        
+        markDirtyAll();
+        
+        notifyWallsReset();
+    }
+    
+    /**
+     * Has this room been visited?
+     * @param index The index of the room
+     * @return true = yes, false = no
+     */
+    public boolean hasVisited(final int index)
+    {
+        return ((visited[index >> 6] & (1L << index)) != 0);
+    }
+    
+    /**
+     * Assign the room visited
+     * @param index The index of the room
+     * @param visited true = yes, false = no
+     */
+    public void setVisited(final int index, final boolean visited)
+    {
+        //nothing to do if the flag doesn't change
+        if (hasVisited(index) == visited)
+            return;
+        
+        if (dirty != null)
+            dirty.add(index);
+        
+        if (visited)
+        {
+            this.visited[index >> 6] |= (1L << index);
+            this.visitedCount++;
+        }
+        else
+        {
+            this.visited[index >> 6] &= ~(1L << index);
+            this.visitedCount--;
+        }
+    }
+    
+    /**
+     * Get the visited count.<br>
+     * The count is maintained as rooms are flagged, so no scan of the grid is needed
+     * @return The total number of rooms flagged as visited
+     */
+    public int getVisitedCount()
+    {
+        return this.visitedCount;
+    }
+    
+    /**
+     * Update all rooms as visited/un-visited
+     * @param visited True if we want the rooms visited, false otherwise
+     */
+    public void setVisitedAll(final boolean visited)
+    {
+        Arrays.fill(this.visited, visited ? -1L : 0L);
+        
+        this.visitedCount = (visited) ? getSize() : 0;
+        
+        //rooms that are not part of the grid are never visited
+        if (visited && getActiveCount() < getSize())
+        {
+            for (int index = 0; index < getSize(); index++)
+            {
+                if (!topology.hasCell(index))
+                    this.visited[index >> 6] &= ~(1L << index);
+            }
+            
+            this.visitedCount = getActiveCount();
+        }
+        
+        markDirtyAll();
+    }
+    
+    /**
+     * Get the cost
+     * @param index The index of the room
+     * @return The cost of the room
+     */
+    public int getCost(final int index)
+    {
+        return this.costs[index];
+    }
+    
+    /**
+     * Assign the cost
+     * @param index The index of the room
+     * @param cost The desired cost of the room
+     */
+    public void setCost(final int index, final int cost)
+    {
+        this.costs[index] = cost;
+    }
+    
+    /**
+     * Get the set
+     * @param index The index of the room
+     * @return The label of the set the room belongs to, by default the index of the room
+     */
+    public int getSet(final int index)
+    {
+        return (this.sets == null) ? index : this.sets[index];
+    }
+    
+    /**
+     * Assign the set
+     * @param index The index of the room
+     * @param set The label of the set the room will belong to
+     */
+    public void setSet(final int index, final int set)
+    {
+        //create the labels if not exists, each room starts in a set of its own
+        if (this.sets == null)
+        {
+            this.sets = new int[getSize()];
+            
+            for (int i = 0; i < this.sets.length; i++)
+            {
+                this.sets[i] = i;
+            }
+        }
+        
+        this.sets[index] = set;
+    }
+    
+    /**
+     * Get the id.<br>
+     * The identifier belongs to the set of the room and is only created the first time it is requested
+     * @param index The index of the room
+     * @return The unique identifier of the set the room belongs to
+     */
+    public UUID getId(final int index)
+    {
+        final int set = getSet(index);
+        
+        if (this.ids == null)
+            this.ids = new UUID[Math.max(getSize(), set + 1)];
+        if (set >= this.ids.length)
+            this.ids = Arrays.copyOf(this.ids, set + 1);
+        
+        //create a random unique identifier if not exists
+        if (this.ids[set] == null)
+            this.ids[set] = UUID.randomUUID();
+        
+        return this.ids[set];
+    }
+    
+    /**
+     * Assign the id.<br>
+     * The room will join the set with the identifier, or a new set if no set has the identifier
+     * @param index The index of the room
+     * @param id The unique identifier we want to assign
+     */
+    public void setId(final int index, final UUID id)
+    {
+        //check if a set already has this identifier
+        if (this.ids != null)
+        {
+            for (int set = 0; set < this.ids.length; set++)
+            {
+                if (id.equals(this.ids[set]))
+                {
+                    setSet(index, set);
+                    return;
+                }
+            }
+        }
+        
+        //create a new set label after all existing labels
+        final int set = (this.ids == null) ? getSize() : Math.max(getSize(), this.ids.length);
+        
+        this.ids = (this.ids == null) ? new UUID[set + 1] : Arrays.copyOf(this.ids, set + 1);
+        this.ids[set] = id;
+        
+        setSet(index, set);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.gamesbykevin.androidframework.maze;
+
+/**
+ * Receive updates when the walls of a grid change
+ * @author GOD
+ */
+public interface IGridListener
+{
+    /**
+     * Called after the walls of a single room have changed
+     * @param index The index of the room
+     */
+    public void onWallsChanged(final int index);
+    
+    /**
+     * Called after the walls of every room have changed at once
+     */
+    public void onWallsReset();
+}
\ No newline at end of file
@@ -20,6 +20,22 @@ public interface IMaze extends Disposable
      */
     public void update(final Random random) throws Exception;
     
+    /**
+     * Run the maze generation until the maze is complete
+     * @param random Object used to make random decisions
+     * @throws Exception 
+     */
+    public void generate(final Random random) throws Exception;
+    
+    /**
+     * Run the maze generation until the maze is complete, or the step limit is reached
+     * @param random Object used to make random decisions
+     * @param maxSteps The maximum number of generation steps to perform
+     * @return The number of generation steps performed
+     * @throws Exception 
+     */
+    public int generate(final Random random, final int maxSteps) throws Exception;
+    
     /**
      * Get progress
      * @return Our object used to get the progress of the maze generation
@@ -0,0 +1,14 @@
+package com.gamesbykevin.androidframework.maze;
+
+/**
+ * Receive updates while a maze is being generated
+ * @author GOD
+ */
+public interface IMazeListener
+{
+    /**
+     * Called at the assigned interval of generation steps and once more when the maze is generated
+     * @param maze The maze being generated, use {@link IMaze#getProgress()} to check how far along it is
+     */
+    public void onProgress(final IMaze maze);
+}
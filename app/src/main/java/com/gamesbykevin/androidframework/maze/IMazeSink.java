@@ -0,0 +1,17 @@
+package com.gamesbykevin.androidframework.maze;
+
+/**
+ * Receive the mazes generated by a {@link BatchGenerator}
+ * @author GOD
+ */
+public interface IMazeSink
+{
+    /**
+     * Called once for every maze as soon as it is generated.<br>
+     * Calls are never made at the same time, but they may arrive in any order
+     * @param index The index of the maze, in the order it was added to the batch
+     * @param maze The generated maze
+     * @throws Exception 
+     */
+    public void onGenerated(final int index, final Maze maze) throws Exception;
+}
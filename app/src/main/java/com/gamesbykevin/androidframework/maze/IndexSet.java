@@ -0,0 +1,156 @@
+package com.gamesbykevin.androidframework.maze;
+
+import com.gamesbykevin.androidframework.resources.Disposable;
+
+import java.util.Random;
+
+/**
+ * A set of room indexes.<br>
+ * The elements are kept in a dense array with the position of each element stored separately,<br>
+ * so adding, removing, checking and picking a random element are all constant time.
+ * @author GOD
+ */
+public class IndexSet implements Disposable
+{
+    //the elements of the set, only the first (size) are valid
+    private int[] elements;
+    
+    //the position of each element in our array, -1 if the element is not in the set
+    private int[] positions;
+    
+    //the number of elements in the set
+    private int size = 0;
+    
+    /**
+     * Create an empty set
+     * @param capacity The elements of the set will range from 0 to (capacity - 1)
+     */
+    public IndexSet(final int capacity)
+    {
+        this.elements = new int[capacity];
+        this.positions = new int[capacity];
+        
+        for (int index = 0; index < capacity; index++)
+        {
+            this.positions[index] = -1;
+        }
+    }
+    
+    @Override
+    public void dispose()
+    {
+        this.elements = null;
+        this.positions = null;
+    }
+    
+    /**
+     * Get the size
+     * @return The number of elements in the set
+     */
+    public int getSize()
+    {
+        return this.size;
+    }
+    
+    /**
+     * Is the set empty?
+     * @return true if there are no elements in the set, false otherwise
+     */
+    public boolean isEmpty()
+    {
+        return (getSize() == 0);
+    }
+    
+    /**
+     * Do we have the element?
+     * @param element The element we want to check
+     * @return true if the element is in the set, false otherwise
+     */
+    public boolean contains(final int element)
+    {
+        return (positions[element] >= 0);
+    }
+    
+    /**
+     * Add the element
+     * @param element The element we want to add
+     * @return true if the element was added, false if it already existed
+     */
+    public boolean add(final int element)
+    {
+        if (contains(element))
+            return false;
+        
+        elements[size] = element;
+        positions[element] = size;
+        size++;
+        
+        return true;
+    }
+    
+    /**
+     * Remove the element.<br>
+     * The last element takes the place of the removed element, so the order is not kept
+     * @param element The element we want to remove
+     * @return true if the element was removed, false if it did not exist
+     */
+    public boolean remove(final int element)
+    {
+        if (!contains(element))
+            return false;
+        
+        //move the last element into the position of the removed element
+        final int position = positions[element];
+        final int last = elements[size - 1];
+        
+        elements[position] = last;
+        positions[last] = position;
+        positions[element] = -1;
+        size--;
+        
+        return true;
+    }
+    
+    /**
+     * Get the element
+     * @param position The position in the set, from 0 to (size - 1)
+     * @return The element at the position
+     */
+    public int get(final int position)
+    {
+        return elements[position];
+    }
+    
+    /**
+     * Get the position of the element
+     * @param element The element we want to check
+     * @return The position of the element in the set, -1 if the element is not in the set
+     */
+    public int indexOf(final int element)
+    {
+        return positions[element];
+    }
+    
+    /**
+     * Get a random element
+     * @param random Object used to make random decisions
+     * @return A random element from the set
+     */
+    public int getRandom(final Random random)
+    {
+        return get(random.nextInt(getSize()));
+    }
+    
+    /**
+     * Remove all elements from the set
+     */
+    public void clear()
+    {
+        for (int position = 0; position < size; position++)
+        {
+            positions[elements[position]] = -1;
+        }
+        
+        this.size = 0;
+    }
+}
@@ -1,9 +1,13 @@
 package com.gamesbykevin.androidframework.maze;
 
 import com.gamesbykevin.androidframework.base.Cell;
+import com.gamesbykevin.androidframework.base.Viewport;
 import com.gamesbykevin.androidframework.maze.Room.Wall;
+import com.gamesbykevin.androidframework.maze.topology.ITopology;
+import com.gamesbykevin.androidframework.maze.topology.SquareTopology;
 import com.gamesbykevin.androidframework.util.Progress;
 
+import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Paint;
@@ -27,9 +31,9 @@ public abstract class Maze implements IMaze
     private final int rows;
     
     /**
-     * The rooms that make up the maze
+     * The compact storage of the rooms that make up the maze
      */
-    private Room[][] rooms;
+    private Grid grid;
     
     //the start and finish locations
     private Cell start, finish;
@@ -37,6 +41,31 @@ public abstract class Maze implements IMaze
     //our maze generation progress
     private Progress progress;
     
+    /**
+     * The stages of the maze generation
+     */
+    public enum Status
+    {
+        NotStarted, Running, Complete
+    }
+    
+    //has the maze generation started
+    private boolean started = false;
+    
+    //object notified as the maze is generated
+    private IMazeListener listener;
+    
+    //the number of generation steps between each listener notification
+    private int interval = DEFAULT_LISTENER_INTERVAL;
+    
+    //the number of generation steps since the listener was last notified
+    private int steps = 0;
+    
+    /**
+     * The default number of generation steps between each listener notification
+     */
+    public static final int DEFAULT_LISTENER_INTERVAL = 1000;
+    
     //default maze size
     protected static final int DEFAULT_MAZE_DIMENSION = 10;
     
@@ -46,6 +75,36 @@ public abstract class Maze implements IMaze
     //object used to render the 2d maze
     private Paint paint;
     
+    //the bitmap tiles of the generated maze, null if the maze is drawn every frame
+    private MazeRenderCache cache;
+    
+    //the wall segments drawn every frame, only created when needed
+    private WallSegments segments;
+    
+    //the visible area, null if the whole maze is drawn
+    private Viewport viewport;
+    
+    //the points of the wall segments in the viewport, reused every frame
+    private float[] visible;
+    
+    //the points of the wall segments of a maze that is not square, reused every frame
+    private float[] sides;
+    
+    //the room views returned by getRooms(), only created when first requested
+    private Room[][] rooms;
+    
+    //do we draw the maze while it is generated
+    private boolean progressive = false;
+    
+    //the persistent image of the maze, only the changed rooms are drawn on it
+    private Bitmap backing;
+    
+    //the canvas used to draw on the persistent image
+    private Canvas backingCanvas;
+    
+    //the room dimension of the persistent image
+    private int backingD = 0;
+    
     /**
      * Create a new maze of specified size
      * @param cols Total columns
@@ -54,23 +113,31 @@ public abstract class Maze implements IMaze
      */
     protected Maze(final int cols, final int rows) throws Exception
     {
-        if (cols < 2)
+        this(new SquareTopology(cols, rows));
+    }
+    
+    /**
+     * Create a new maze with the shape of the topology.<br>
+     * Only rooms part of the topology are generated, the generic render only draws square rooms
+     * @param topology The shape of the rooms and how they connect
+     * @throws Exception If the minimum required dimensions is not provided
+     */
+    protected Maze(final ITopology topology) throws Exception
+    {
+        if (topology.getCols() < 2)
             throw new Exception("The maze must contain at least 2 columns");
-        if (rows < 2)
+        if (topology.getRows() < 2)
             throw new Exception("The maze must contain at least 2 rows");
         
         //store dimensions
-        this.cols = cols;
-        this.rows = rows;
-        
-        //create new progress object
-        this.progress = new Progress(cols * rows);
+        this.cols = topology.getCols();
+        this.rows = topology.getRows();
         
-        //create a new array of rooms 
-        this.rooms = new Room[rows][cols];
+        //create the storage for our rooms
+        this.grid = new Grid(topology);
         
-        //now create our rooms
-        createRooms();
+        //create new progress object, the maze is complete once every room is visited
+        this.progress = new Progress(getGrid().getActiveCount());
         
         //create the start/finish locations
         this.start = new Cell();
@@ -108,19 +175,86 @@ public abstract class Maze implements IMaze
     }
     
     /**
-     * Create a room for every (column, row) in our maze
+     * Assign the render cache.<br>
+     * When cached the generated maze is drawn once into bitmap tiles, and only the visible tiles are drawn each frame.<br>
+     * The tiles are created again when the walls change or the room dimension changes.<br>
+     * This is only for the generic maze render
+     * @param cached true if we want to cache the generated maze, false to draw the walls every frame
      */
-    private void createRooms()
+    public void setCached(final boolean cached)
     {
-        for (int row = 0; row < getRows(); row++)
+        if (cached && cache == null)
         {
-            for (int col = 0; col < getCols(); col++)
-            {
-                this.rooms[row][col] = new Room(col, row);
-            }
+            cache = new MazeRenderCache(this);
+        }
+        else if (!cached && cache != null)
+        {
+            cache.dispose();
+            cache = null;
         }
     }
-
+    
+    /**
+     * Is the generated maze cached?
+     * @return true if the generated maze is drawn from bitmap tiles, false otherwise
+     */
+    public boolean isCached()
+    {
+        return (cache != null);
+    }
+    
+    /**
+     * Assign the progressive render.<br>
+     * When progressive the maze is drawn while it is generated, instead of the progress.<br>
+     * The maze is kept in a bitmap of (columns * d + 1) by (rows * d + 1) pixels, and each frame only the rooms<br>
+     * whose walls or visited flag changed are drawn on it. Use a small room dimension for large mazes.<br>
+     * This is only for the generic maze render
+     * @param progressive true if we want to draw the maze while it is generated, false otherwise
+     */
+    public void setProgressive(final boolean progressive)
+    {
+        this.progressive = progressive;
+        
+        //the grid tracks the rooms that change
+        getGrid().setTracking(progressive);
+        
+        if (!progressive && backing != null)
+        {
+            backing.recycle();
+            backing = null;
+            backingCanvas = null;
+        }
+    }
+    
+    /**
+     * Is the render progressive?
+     * @return true if the maze is drawn while it is generated, false otherwise
+     */
+    public boolean isProgressive()
+    {
+        return this.progressive;
+    }
+    
+    /**
+     * Assign the viewport.<br>
+     * When assigned only the rows and columns inside the viewport are drawn.<br>
+     * This is only for the generic maze render
+     * @param viewport The visible area, null to draw the whole maze
+     */
+    public void setViewport(final Viewport viewport)
+    {
+        this.viewport = viewport;
+    }
+    
+    /**
+     * Get the viewport
+     * @return The visible area, null if the whole maze is drawn
+     */
+    public Viewport getViewport()
+    {
+        return this.viewport;
+    }
+    
     /**
      * Get the finish location
      * @return The finish (column, row)
@@ -202,17 +336,7 @@ public abstract class Maze implements IMaze
      */
     protected void populateRooms()
     {
-        for (int row = 0; row < getRows(); row++)
-        {
-            for (int col = 0; col < getCols(); col++)
-            {
-                final Room room = getRoom(col, row);
-                
-                //make sure the room exists
-                if (room != null)
-                    getRoom(col, row).addAllWalls();
-            }
-        }
+        getGrid().addAllWalls();
     }
     
     /**
@@ -230,25 +354,56 @@ public abstract class Maze implements IMaze
     @Override
     public void dispose()
     {
-        if (getRooms() != null)
+        if (getGrid() != null)
         {
-            for (int row = 0; row < getRows(); row++)
+            this.grid.removeListener(segments);
+            this.grid.dispose();
+            this.grid = null;
+        }
+        
+        if (cache != null)
+        {
+            cache.dispose();
+            cache = null;
+        }
+        
+        if (segments != null)
+        {
+            segments.dispose();
+            segments = null;
+        }
+        
+        this.paint = null;
+        this.listener = null;
+        this.viewport = null;
+        this.visible = null;
+        this.sides = null;
+        
+        if (rooms != null)
+        {
+            for (Room[] row : rooms)
             {
-                for (int col = 0; col < getCols(); col++)
+                for (Room room : row)
                 {
-                    this.rooms[row][col].dispose();
-                    this.rooms[row][col] = null;
+                    room.dispose();
                 }
             }
             
-            this.rooms = null;
+            rooms = null;
         }
         
-        this.paint = null;
+        if (backing != null)
+        {
+            backing.recycle();
+            backing = null;
+        }
+        
+        this.backingCanvas = null;
     }
     
     /**
-     * Get the room at the specified location
+     * Get the room at the specified location.<br>
+     * The room returned is a lightweight view of the grid, changes to the room are stored in the grid
      * @param col Column
      * @param row Row
      * @return The room at the specified location, if the location is out of bounds, null is returned
@@ -259,16 +414,103 @@ public abstract class Maze implements IMaze
         if (!hasBounds(col, row))
             return null;
         
-        return getRooms()[row][col];
+        return new Room(getGrid(), col, row);
     }
     
     /**
-     * Get the rooms.
+     * Get the rooms.<br>
+     * The array of room views is created on the first call (rows * columns objects) and the same array is returned after that.<br>
+     * The views hold no state of their own, so they always show the current grid. Use {@link #getGrid()} to avoid creating the rooms at all
      * @return The array of rooms that make up the maze
      */
     public Room[][] getRooms()
     {
-        return this.rooms;
+        if (getGrid() == null)
+            return null;
+        
+        if (rooms == null)
+        {
+            rooms = new Room[getRows()][getCols()];
+            
+            for (int row = 0; row < getRows(); row++)
+            {
+                for (int col = 0; col < getCols(); col++)
+                {
+                    rooms[row][col] = new Room(getGrid(), col, row);
+                }
+            }
+        }
+        
+        return rooms;
+    }
+    
+    /**
+     * Get the grid
+     * @return The compact storage of the walls, visited flags and costs of every room
+     */
+    public Grid getGrid()
+    {
+        return this.grid;
+    }
+    
+    /**
+     * Get the neighbors of the room without creating any objects
+     * @param index The index of the room
+     * @param buffer Array that will contain the index of each neighbor, must have room for at least 4
+     * @return The number of neighbors written to the buffer
+     */
+    protected int getNeighbors(final int index, final int[] buffer)
+    {
+        return getGrid().getNeighbors(index, buffer);
+    }
+    
+    /**
+     * Get the neighbors of the room that match the visited flag, without creating any objects
+     * @param index The index of the room
+     * @param buffer Array that will contain the index of each neighbor, must have room for at least 4
+     * @param visited true if we want the visited neighbors, false if we want the neighbors not visited
+     * @return The number of neighbors written to the buffer
+     */
+    protected int getNeighbors(final int index, final int[] buffer, final boolean visited)
+    {
+        return getGrid().getNeighbors(index, buffer, visited);
+    }
+    
+    /**
+     * Get the neighbors of the room in the order of the sides, without creating any objects
+     * @param index The index of the room
+     * @param buffer Array that will contain the index of each neighbor, must have room for at least {@link Grid#getSides()}
+     * @param order The sides to check in order, see {@link Grid#getNeighbors(int, int[], int[])}
+     * @return The number of neighbors written to the buffer
+     */
+    protected int getNeighbors(final int index, final int[] buffer, final int[] order)
+    {
+        return getGrid().getNeighbors(index, buffer, order);
+    }
+    
+    /**
+     * Get the neighbors of the room that match the visited flag in the order of the sides, without creating any objects
+     * @param index The index of the room
+     * @param buffer Array that will contain the index of each neighbor, must have room for at least {@link Grid#getSides()}
+     * @param order The sides to check in order, see {@link Grid#getNeighbors(int, int[], int[], boolean)}
+     * @param visited true if we want the visited neighbors, false if we want the neighbors not visited
+     * @return The number of neighbors written to the buffer
+     */
+    protected int getNeighbors(final int index, final int[] buffer, final int[] order, final boolean visited)
+    {
+        return getGrid().getNeighbors(index, buffer, order, visited);
+    }
+    
+    /**
+     * Join the neighboring rooms and mark both as visited
+     * @param index1 The index of room 1
+     * @param index2 The index of room 2
+     */
+    protected void join(final int index1, final int index2)
+    {
+        getGrid().join(index1, index2);
+        getGrid().setVisited(index1, true);
+        getGrid().setVisited(index2, true);
     }
     
     /**
@@ -294,6 +536,37 @@ public abstract class Maze implements IMaze
     	return (getProgress().isComplete());
     }
     
+    /**
+     * Has the maze generation started?<br>
+     * This is a constant time check, unlike scanning the rooms with {@link MazeHelper#hasVisited(Maze)}
+     * @return true if the first generation step has been made, false otherwise
+     */
+    public boolean hasStarted()
+    {
+        return this.started;
+    }
+    
+    /**
+     * Flag the maze generation as started.<br>
+     * Each algorithm calls this during its first generation step
+     */
+    protected void markStarted()
+    {
+        this.started = true;
+    }
+    
+    /**
+     * Get the status
+     * @return The current stage of the maze generation
+     */
+    public Status getStatus()
+    {
+        if (isGenerated())
+            return Status.Complete;
+        
+        return (hasStarted()) ? Status.Running : Status.NotStarted;
+    }
+    
     @Override
     public Progress getProgress()
     {
@@ -302,25 +575,71 @@ public abstract class Maze implements IMaze
     
     /**
      * Update the progress of our maze creation.<br>
-     * Here we track the progress by the number of visited rooms.
+     * Here we track the progress by the number of visited rooms.<br>
+     * The grid keeps a running count of visited rooms, so this is constant time
      */
     protected void updateProgress()
     {
+        //update the progress
+        getProgress().setCount(getGrid().getVisitedCount());
+    }
+    
+    /**
+     * Assign the listener to be notified while the maze is generated with {@link #generate(Random)}
+     * @param listener The listener to notify, null if we don't want to be notified
+     */
+    public void setListener(final IMazeListener listener)
+    {
+        this.listener = listener;
+    }
+    
+    /**
+     * Assign how often the listener is notified
+     * @param interval The number of generation steps between each notification
+     * @throws Exception If the interval is less than 1
+     */
+    public void setListenerInterval(final int interval) throws Exception
+    {
+        if (interval < 1)
+            throw new Exception("The interval must be at least 1");
+        
+        this.interval = interval;
+    }
+    
+    @Override
+    public void generate(final Random random) throws Exception
+    {
+        generate(random, Integer.MAX_VALUE);
+    }
+    
+    @Override
+    public int generate(final Random random, final int maxSteps) throws Exception
+    {
+        //the number of steps performed
         int count = 0;
         
-        //check all rooms
-        for (int row = 0; row < getRows(); row++)
+        //continue until the maze is generated or we reach our limit
+        while (count < maxSteps && !isGenerated())
         {
-            for (int col = 0; col < getCols(); col++)
+            update(random);
+            count++;
+            
+            //notify the listener at each interval
+            if (listener != null && ++steps >= interval && !isGenerated())
             {
-                //keep track of number of visited rooms
-                if (getRoom(col, row).hasVisited())
-                    count++;
+                steps = 0;
+                listener.onProgress(this);
             }
         }
         
-        //update the progress
-        getProgress().setCount(count);
+        //notify the listener the maze is generated
+        if (listener != null && count > 0 && isGenerated())
+        {
+            steps = 0;
+            listener.onProgress(this);
+        }
+        
+        return count;
     }
     
     /**
@@ -333,17 +652,45 @@ public abstract class Maze implements IMaze
     
     /**
      * Render the maze generation progress.<br>
-     * Once the maze has been generated a generic 2d representation will be drawn
+     * Once the maze has been generated a generic 2d representation will be drawn.<br>
+     * A maze that is not square only draws its walls, using the shape of the rooms from the topology
      * @param graphics 
      */
     @Override
     public void render(final Canvas canvas)
     {
+        //the cache, viewport and progressive drawing only know square rooms
+        if (!getGrid().isSquare())
+        {
+            if (!isGenerated())
+            {
+                getProgress().render(canvas);
+            }
+            else
+            {
+                renderSides(canvas);
+            }
+            
+            return;
+        }
+        
+        //draw the changed rooms, then the persistent image
+        if (progressive)
+        {
+            renderProgressive(canvas);
+            return;
+        }
+        
         //if the maze has not generated and we want to display the progress
         if (!isGenerated())
         {
             getProgress().render(canvas);
         }
+        else if (cache != null)
+        {
+            //draw the visible tiles of the maze
+            cache.render(canvas, x, y, d);
+        }
         else
         {
         	//create paint if not exists
@@ -360,26 +707,234 @@ public abstract class Maze implements IMaze
         	paint.setColor(Color.WHITE);
         	canvas.drawRect(x, y, x + (getCols() * d), y + (getRows() * d), paint);
             
-            for (int row = 0; row < getRows(); row++)
+            //only draw the rooms we can see
+            if (viewport != null)
             {
-                int y1 = (int)(y + (row * d));
-
-                for (int col = 0; col < getCols(); col++)
-                {
-                    int x1 = (int)(x + (col * d));
-
-                    final Room room = getRoom(col, row);
-
-                    if (room.hasWall(Wall.East))
-                    	canvas.drawLine(x1 + d, y1, x1 + d, y1 + d, paint);
-                    if (room.hasWall(Wall.West))
-                    	canvas.drawLine(x1, y1, x1, y1 + d, paint);
-                    if (room.hasWall(Wall.North))
-                        canvas.drawLine(x1, y1, x1 + d, y1, paint);
-                    if (room.hasWall(Wall.South))
-                        canvas.drawLine(x1, y1 + d, x1 + d, y1 + d, paint);
-                }
+                renderVisible(canvas);
+                return;
+            }
+            
+            //create the wall segments if not exists, the grid keeps them updated as the walls change
+            if (segments == null)
+            {
+                segments = new WallSegments(getGrid());
+                getGrid().addListener(segments);
+            }
+            
+            //the segments are measured in rooms, so scale the canvas by the room dimension
+            canvas.save();
+            canvas.translate(x, y);
+            canvas.scale(d, d);
+            canvas.drawLines(segments.getPoints(), 0, segments.getCount() * 4, paint);
+            canvas.restore();
+        }
+    }
+    
+    /**
+     * Draw the walls of a maze that is not square with a single Canvas.drawLines call.<br>
+     * A wall shared by 2 rooms is only drawn by the room with the lower index
+     * @param canvas Object where the maze is drawn
+     */
+    private void renderSides(final Canvas canvas)
+    {
+        //create paint if not exists
+        if (paint == null)
+            paint = new Paint();
+        
+        final Grid grid = getGrid();
+        
+        if (sides == null)
+            sides = new float[grid.getSize() * grid.getSides() * 4];
+        
+        int count = 0;
+        
+        for (int index = 0; index < grid.getSize(); index++)
+        {
+            if (!grid.hasRoom(index))
+                continue;
+            
+            for (int side = 0; side < grid.getSides(); side++)
+            {
+                if (!grid.hasWall(index, side))
+                    continue;
+                
+                final int neighbor = grid.getNeighbor(index, side);
+                
+                if (neighbor >= 0 && neighbor < index)
+                    continue;
+                
+                grid.getTopology().getSide(index, side, sides, count * 4);
+                count++;
             }
         }
+        
+        paint.setStyle(Paint.Style.STROKE);
+        paint.setColor(Color.WHITE);
+        
+        //the sides are measured in rooms, so scale the canvas by the room dimension
+        canvas.save();
+        canvas.translate(x, y);
+        canvas.scale(d, d);
+        canvas.drawLines(sides, 0, count * 4, paint);
+        canvas.restore();
+    }
+    
+    /**
+     * Draw the walls of the rooms inside the viewport with a single Canvas.drawLines call.<br>
+     * Each room adds its north and west wall, the rooms on the last visible row and column also add their south and east wall
+     * @param canvas Object where the maze is drawn
+     */
+    private void renderVisible(final Canvas canvas)
+    {
+        //locate the visible rows and columns
+        final int col1 = Math.max(0, (viewport.getBounds().left - x) / d);
+        final int row1 = Math.max(0, (viewport.getBounds().top - y) / d);
+        final int col2 = Math.min(getCols() - 1, (viewport.getBounds().right - 1 - x) / d);
+        final int row2 = Math.min(getRows() - 1, (viewport.getBounds().bottom - 1 - y) / d);
+        
+        //the maze is not visible
+        if (col1 > col2 || row1 > row2 || viewport.getBounds().right - 1 < x || viewport.getBounds().bottom - 1 < y)
+        {
+            viewport.addCulled(getGrid().getSize());
+            return;
+        }
+        
+        final int rooms = (col2 - col1 + 1) * (row2 - row1 + 1);
+        
+        viewport.addDrawn(rooms);
+        viewport.addCulled(getGrid().getSize() - rooms);
+        
+        //make sure we have room for every possible segment
+        final int capacity = ((rooms * 2) + (col2 - col1 + 1) + (row2 - row1 + 1)) * 4;
+        
+        if (visible == null || visible.length < capacity)
+            visible = new float[capacity];
+        
+        int count = 0;
+        
+        for (int row = row1; row <= row2; row++)
+        {
+            for (int col = col1; col <= col2; col++)
+            {
+                final int index = getGrid().getIndex(col, row);
+                final int walls = getGrid().getWalls(index);
+                
+                //a wall shared with a neighbor is drawn if either room has it
+                if ((walls & Wall.North.getBit()) != 0 || (row > 0 && getGrid().hasWall(index - getCols(), Wall.South)))
+                    count = addSegment(count, col, row, col + 1, row);
+                if ((walls & Wall.West.getBit()) != 0 || (col > 0 && getGrid().hasWall(index - 1, Wall.East)))
+                    count = addSegment(count, col, row, col, row + 1);
+                if (row == row2 && ((walls & Wall.South.getBit()) != 0 || (row < getRows() - 1 && getGrid().hasWall(index + getCols(), Wall.North))))
+                    count = addSegment(count, col, row + 1, col + 1, row + 1);
+                if (col == col2 && ((walls & Wall.East.getBit()) != 0 || (col < getCols() - 1 && getGrid().hasWall(index + 1, Wall.West))))
+                    count = addSegment(count, col + 1, row, col + 1, row + 1);
+            }
+        }
+        
+        //the segments are measured in rooms, so scale the canvas by the room dimension
+        canvas.save();
+        canvas.translate(x, y);
+        canvas.scale(d, d);
+        canvas.drawLines(visible, 0, count, paint);
+        canvas.restore();
+    }
+    
+    /**
+     * Add a segment to the visible wall segments
+     * @param count The number of points already added
+     * @param x1 Start column
+     * @param y1 Start row
+     * @param x2 End column
+     * @param y2 End row
+     * @return The number of points after the segment is added
+     */
+    private int addSegment(final int count, final int x1, final int y1, final int x2, final int y2)
+    {
+        visible[count] = x1;
+        visible[count + 1] = y1;
+        visible[count + 2] = x2;
+        visible[count + 3] = y2;
+        
+        return count + 4;
+    }
+    
+    /**
+     * Draw the rooms that changed on the persistent image, then draw the image
+     * @param canvas Object where the maze is drawn
+     */
+    private void renderProgressive(final Canvas canvas)
+    {
+        //create paint if not exists
+        if (paint == null)
+            paint = new Paint();
+        
+        //create the image if not exists, or if the room dimension changed
+        if (backing == null || backingD != d)
+        {
+            if (backing != null)
+                backing.recycle();
+            
+            backing = Bitmap.createBitmap((getCols() * d) + 1, (getRows() * d) + 1, Bitmap.Config.ARGB_8888);
+            backingD = d;
+            
+            if (backingCanvas == null)
+                backingCanvas = new Canvas();
+            
+            backingCanvas.setBitmap(backing);
+            
+            //every room has to be drawn on the new image
+            getGrid().setTracking(false);
+            getGrid().setTracking(true);
+        }
+        
+        final IndexSet dirty = getGrid().getDirty();
+        
+        paint.setStyle(Paint.Style.FILL);
+        
+        for (int position = 0; position < dirty.getSize(); position++)
+        {
+            renderRoom(dirty.get(position));
+        }
+        
+        dirty.clear();
+        
+        canvas.drawBitmap(backing, x, y, null);
+    }
+    
+    /**
+     * Draw the room on the persistent image.<br>
+     * The room is filled, then each wall is drawn or erased, the corners are always drawn
+     * @param index The index of the room
+     */
+    private void renderRoom(final int index)
+    {
+        final int x1 = getGrid().getCol(index) * d;
+        final int y1 = getGrid().getRow(index) * d;
+        
+        final int walls = getGrid().getWalls(index);
+        
+        //a room not yet reached by the generation is shown darker
+        final int background = (getGrid().hasVisited(index) || walls != Grid.WALLS_ALL) ? Color.BLACK : Color.DKGRAY;
+        
+        paint.setColor(background);
+        backingCanvas.drawRect(x1 + 1, y1 + 1, x1 + d, y1 + d, paint);
+        
+        paint.setColor(((walls & Wall.North.getBit()) != 0) ? Color.WHITE : background);
+        backingCanvas.drawRect(x1 + 1, y1, x1 + d, y1 + 1, paint);
+        
+        paint.setColor(((walls & Wall.South.getBit()) != 0) ? Color.WHITE : background);
+        backingCanvas.drawRect(x1 + 1, y1 + d, x1 + d, y1 + d + 1, paint);
+        
+        paint.setColor(((walls & Wall.West.getBit()) != 0) ? Color.WHITE : background);
+        backingCanvas.drawRect(x1, y1 + 1, x1 + 1, y1 + d, paint);
+        
+        paint.setColor(((walls & Wall.East.getBit()) != 0) ? Color.WHITE : background);
+        backingCanvas.drawRect(x1 + d, y1 + 1, x1 + d + 1, y1 + d, paint);
+        
+        paint.setColor(Color.WHITE);
+        backingCanvas.drawRect(x1, y1, x1 + 1, y1 + 1, paint);
+        backingCanvas.drawRect(x1 + d, y1, x1 + d + 1, y1 + 1, paint);
+        backingCanvas.drawRect(x1, y1 + d, x1 + 1, y1 + d + 1, paint);
+        backingCanvas.drawRect(x1 + d, y1 + d, x1 + d + 1, y1 + d + 1, paint);
     }
 }
\ No newline at end of file
@@ -0,0 +1,386 @@
+package com.gamesbykevin.androidframework.maze;
+
+import com.gamesbykevin.androidframework.maze.algorithm.Algorithm;
+import com.gamesbykevin.androidframework.resources.Disposable;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Cache of generated mazes identified by (algorithm, columns, rows, seed).<br>
+ * A maze is generated with new Random(seed), so the same key always produces the same walls.<br>
+ * The mazes are stored encoded with {@link MazeCodec} in a memory tier bounded by bytes, where the least recently<br>
+ * used mazes are removed first, and optionally in a directory that survives restarts.<br>
+ * Every call returns a new maze decoded from the stored bytes, so a generated maze and a cached maze are in the same state<br>
+ * and the caller is free to modify or dispose it.
+ * @author GOD
+ */
+public class MazeCache implements Disposable
+{
+    /**
+     * The key identifying a maze
+     */
+    private static final class Key
+    {
+        private final Algorithm algorithm;
+        private final int cols, rows;
+        private final long seed;
+        
+        private Key(final Algorithm algorithm, final int cols, final int rows, final long seed)
+        {
+            this.algorithm = algorithm;
+            this.cols = cols;
+            this.rows = rows;
+            this.seed = seed;
+        }
+        
+        @Override
+        public boolean equals(final Object object)
+        {
+            if (!(object instanceof Key))
+                return false;
+            
+            final Key key = (Key)object;
+            
+            return (key.algorithm == algorithm && key.cols == cols && key.rows == rows && key.seed == seed);
+        }
+        
+        @Override
+        public int hashCode()
+        {
+            int hash = algorithm.ordinal();
+            hash = (hash * 31) + cols;
+            hash = (hash * 31) + rows;
+            hash = (hash * 31) + (int)(seed ^ (seed >>> 32));
+            return hash;
+        }
+        
+        @Override
+        public String toString()
+        {
+            return algorithm.toString() + "_" + cols + "x" + rows + "_" + Long.toHexString(seed);
+        }
+    }
+    
+    /**
+     * The file extension of the mazes stored in the directory
+     */
+    public static final String FILE_EXTENSION = ".maze";
+    
+    /**
+     * The version of the generated mazes.<br>
+     * Increase it whenever an algorithm creates a different maze for the same seed, so files stored by an older version are never read
+     */
+    public static final int GENERATOR_VERSION = 2;
+    
+    //the encoded mazes in memory, ordered from least to most recently used
+    private LinkedHashMap<Key, byte[]> mazes;
+    
+    //the maximum number of bytes kept in memory
+    private final long capacity;
+    
+    //the number of bytes currently in memory
+    private long bytes = 0;
+    
+    //the directory where the mazes are stored, null if not stored on disk
+    private final File directory;
+    
+    //track the cache activity
+    private int hits = 0, diskHits = 0, misses = 0, evictions = 0;
+    
+    /**
+     * Create a cache kept in memory only
+     * @param capacity The maximum number of bytes kept in memory
+     * @throws Exception If the capacity is less than 1
+     */
+    public MazeCache(final long capacity) throws Exception
+    {
+        this(capacity, null);
+    }
+    
+    /**
+     * Create a cache
+     * @param capacity The maximum number of bytes kept in memory
+     * @param directory The directory where the mazes are stored, null if we don't want to store them on disk
+     * @throws Exception If the capacity is less than 1 or the directory can't be created
+     */
+    public MazeCache(final long capacity, final File directory) throws Exception
+    {
+        if (capacity < 1)
+            throw new Exception("The capacity must be at least 1 byte");
+        if (directory != null && !directory.isDirectory() && !directory.mkdirs())
+            throw new Exception("The directory can't be created " + directory.getPath());
+        
+        this.capacity = capacity;
+        this.directory = directory;
+        
+        //access order so the eldest entry is the least recently used
+        this.mazes = new LinkedHashMap<Key, byte[]>(16, 0.75f, true);
+    }
+    
+    @Override
+    public void dispose()
+    {
+        if (mazes != null)
+        {
+            mazes.clear();
+            mazes = null;
+        }
+    }
+    
+    /**
+     * Get the maze.<br>
+     * The maze is loaded from memory, then from the directory, and is only generated if not found
+     * @param algorithm The algorithm used to generate the maze
+     * @param cols Total columns
+     * @param rows Total rows
+     * @param seed The seed used to generate the maze
+     * @return A new generated maze
+     * @throws Exception If the maze can't be generated or stored
+     */
+    public Maze get(final Algorithm algorithm, final int cols, final int rows, final long seed) throws Exception
+    {
+        final Key key = new Key(algorithm, cols, rows, seed);
+        
+        //check memory first
+        byte[] data = mazes.get(key);
+        
+        if (data != null)
+        {
+            hits++;
+            return MazeCodec.read(ByteBuffer.wrap(data));
+        }
+        
+        //then check the directory
+        data = load(key);
+        
+        if (data != null)
+        {
+            try
+            {
+                final Maze maze = read(key, data);
+                
+                diskHits++;
+                put(key, data);
+                return maze;
+            }
+            catch (Exception e)
+            {
+                //the file is corrupt, remove it and generate the maze again
+                getFile(key).delete();
+            }
+        }
+        
+        //not found anywhere so generate the maze
+        misses++;
+        
+        final Maze maze = algorithm.create(cols, rows);
+        maze.generate(new Random(seed));
+        
+        data = MazeCodec.encode(maze, seed).array();
+        
+        maze.dispose();
+        
+        put(key, data);
+        save(key, data);
+        
+        //return the decoded maze, so it is in the same state as every hit
+        return MazeCodec.read(ByteBuffer.wrap(data));
+    }
+    
+    /**
+     * Remove every maze from memory, the directory is not affected
+     */
+    public void clear()
+    {
+        mazes.clear();
+        bytes = 0;
+    }
+    
+    /**
+     * Get the hits
+     * @return The number of mazes found in memory
+     */
+    public int getHits()
+    {
+        return this.hits;
+    }
+    
+    /**
+     * Get the disk hits
+     * @return The number of mazes not in memory, but found in the directory
+     */
+    public int getDiskHits()
+    {
+        return this.diskHits;
+    }
+    
+    /**
+     * Get the misses
+     * @return The number of mazes that had to be generated
+     */
+    public int getMisses()
+    {
+        return this.misses;
+    }
+    
+    /**
+     * Get the evictions
+     * @return The number of mazes removed from memory to stay within the capacity
+     */
+    public int getEvictions()
+    {
+        return this.evictions;
+    }
+    
+    /**
+     * Get the bytes
+     * @return The number of bytes currently kept in memory
+     */
+    public long getBytes()
+    {
+        return this.bytes;
+    }
+    
+    /**
+     * Place the encoded maze in memory, removing the least recently used mazes to stay within the capacity
+     * @param key The key of the maze
+     * @param data The encoded maze
+     */
+    private void put(final Key key, final byte[] data)
+    {
+        //a maze larger than the capacity is never kept in memory
+        if (data.length > capacity)
+            return;
+        
+        final Iterator<Map.Entry<Key, byte[]>> iterator = mazes.entrySet().iterator();
+        
+        while (bytes + data.length > capacity && iterator.hasNext())
+        {
+            bytes -= iterator.next().getValue().length;
+            iterator.remove();
+            evictions++;
+        }
+        
+        mazes.put(key, data);
+        bytes += data.length;
+    }
+    
+    /**
+     * Get the file of the maze.<br>
+     * The name includes the generator and codec versions, so a file stored by another version is never found
+     * @param key The key of the maze
+     * @return The file where the maze is stored
+     */
+    private File getFile(final Key key)
+    {
+        return new File(directory, key.toString() + "_v" + GENERATOR_VERSION + "_" + MazeCodec.VERSION + FILE_EXTENSION);
+    }
+    
+    /**
+     * Decode the maze stored in the directory
+     * @param key The key of the maze
+     * @param data The encoded maze
+     * @return The decoded maze
+     * @throws Exception If the data is not a valid encoded maze, or it is a different maze than the key
+     */
+    private static Maze read(final Key key, final byte[] data) throws Exception
+    {
+        final Maze maze = MazeCodec.read(ByteBuffer.wrap(data));
+        
+        if (Algorithm.get(maze) != key.algorithm || maze.getCols() != key.cols || maze.getRows() != key.rows)
+        {
+            maze.dispose();
+            throw new Exception("The stored maze is not " + key.toString());
+        }
+        
+        return maze;
+    }
+    
+    /**
+     * Load the encoded maze from the directory
+     * @param key The key of the maze
+     * @return The encoded maze, null if there is no directory or the file does not exist
+     * @throws Exception If the file can't be read
+     */
+    private byte[] load(final Key key) throws Exception
+    {
+        if (directory == null)
+            return null;
+        
+        final File file = getFile(key);
+        
+        if (!file.isFile() || file.length() != MazeCodec.getSize(key.cols, key.rows))
+            return null;
+        
+        final ByteBuffer buffer = ByteBuffer.allocate((int)file.length());
+        
+        final FileInputStream stream = new FileInputStream(file);
+        
+        try
+        {
+            //keep reading until the buffer is full or the file ends
+            while (buffer.hasRemaining())
+            {
+                if (stream.getChannel().read(buffer) < 0)
+                    return null;
+            }
+        }
+        finally
+        {
+            stream.close();
+        }
+        
+        //make sure the file is for this maze
+        buffer.flip();
+        
+        if (MazeCodec.getSeed(buffer) != key.seed)
+            return null;
+        
+        return buffer.array();
+    }
+    
+    /**
+     * Store the encoded maze in the directory.<br>
+     * The maze is written to a temporary file first, so a partial write never replaces a stored maze
+     * @param key The key of the maze
+     * @param data The encoded maze
+     * @throws Exception If the file can't be written
+     */
+    private void save(final Key key, final byte[] data) throws Exception
+    {
+        if (directory == null)
+            return;
+        
+        final File file = getFile(key);
+        final File temp = new File(directory, key.toString() + ".tmp");
+        
+        final FileOutputStream stream = new FileOutputStream(temp);
+        
+        try
+        {
+            final ByteBuffer buffer = ByteBuffer.wrap(data);
+            
+            while (buffer.hasRemaining())
+            {
+                stream.getChannel().write(buffer);
+            }
+        }
+        finally
+        {
+            stream.close();
+        }
+        
+        if (!temp.renameTo(file))
+        {
+            temp.delete();
+            throw new Exception("The maze can't be stored " + file.getPath());
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,456 @@
+package com.gamesbykevin.androidframework.maze;
+
+import com.gamesbykevin.androidframework.maze.algorithm.Algorithm;
+import com.gamesbykevin.androidframework.maze.topology.HexTopology;
+import com.gamesbykevin.androidframework.maze.topology.ITopology;
+import com.gamesbykevin.androidframework.maze.topology.MaskedTopology;
+import com.gamesbykevin.androidframework.maze.topology.SquareTopology;
+import com.gamesbykevin.androidframework.maze.topology.TriangleTopology;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Compact binary format for generated mazes.<br>
+ * The format is a fixed size header followed by the walls of every room, 4 bits per room (a byte per room for hex rooms).<br>
+ * Header (big endian): magic, version, algorithm, topology, columns, rows, start (column, row), finish (column, row) and seed.<br>
+ * A masked topology also stores its mask between the header and the walls, 1 bit per room.
+ * @author GOD
+ */
+public class MazeCodec
+{
+    /**
+     * The first 4 bytes of every encoded maze ("MAZE")
+     */
+    public static final int MAGIC = 0x4D415A45;
+    
+    /**
+     * The version of the format
+     */
+    public static final byte VERSION = 2;
+    
+    /**
+     * The number of bytes in the header
+     */
+    public static final int HEADER_SIZE = 4 + 1 + 1 + 1 + (6 * 4) + 8;
+    
+    /**
+     * The shape of the rooms stored in the header
+     */
+    public static final byte TOPOLOGY_SQUARE = 0, TOPOLOGY_HEX = 1, TOPOLOGY_TRIANGLE = 2;
+    
+    /**
+     * Added to the topology in the header when only some rooms are part of the maze
+     */
+    public static final byte TOPOLOGY_MASKED = 0x10;
+    
+    //the position of the topology in the header
+    private static final int TOPOLOGY_POSITION = 4 + 1 + 1;
+    
+    //the position of the columns in the header, the rows follow
+    private static final int COLS_POSITION = TOPOLOGY_POSITION + 1;
+    
+    //the position of the seed in the header
+    private static final int SEED_POSITION = HEADER_SIZE - 8;
+    
+    /**
+     * Get the size
+     * @param maze The maze we want to encode
+     * @return The total number of bytes needed to encode the maze
+     */
+    public static int getSize(final Maze maze) throws Exception
+    {
+        return (int)getSize(getTopology(maze.getGrid().getTopology()), maze.getCols(), maze.getRows());
+    }
+    
+    /**
+     * Get the size
+     * @param cols Total columns
+     * @param rows Total rows
+     * @return The total number of bytes needed to encode a square maze of the specified dimensions
+     */
+    public static int getSize(final int cols, final int rows)
+    {
+        return (int)getSize(TOPOLOGY_SQUARE, cols, rows);
+    }
+    
+    /**
+     * Get the size
+     * @param topology The topology as stored in the header
+     * @param cols Total columns
+     * @param rows Total rows
+     * @return The total number of bytes needed to encode a maze of the specified topology and dimensions, as a long so it can't overflow
+     */
+    private static long getSize(final int topology, final int cols, final int rows)
+    {
+        final long rooms = (long)cols * rows;
+        
+        long size = HEADER_SIZE;
+        
+        if ((topology & TOPOLOGY_MASKED) != 0)
+            size += getMaskLength(rooms);
+        
+        //the walls are stored the same as the grid stores them, hex rooms have more than 4 walls so they need a byte each
+        if ((topology & ~TOPOLOGY_MASKED) == TOPOLOGY_HEX)
+            return size + rooms;
+        
+        return size + ((rooms + 1) / 2);
+    }
+    
+    /**
+     * Get the mask length
+     * @param rooms The total number of rooms
+     * @return The number of bytes needed to store the mask, 1 bit per room rounded up to whole longs
+     */
+    private static long getMaskLength(final long rooms)
+    {
+        return ((rooms + 63) / 64) * 8;
+    }
+    
+    /**
+     * Get the topology
+     * @param topology The topology of the maze
+     * @return The topology as stored in the header
+     * @throws Exception If the topology can't be encoded
+     */
+    private static int getTopology(final ITopology topology) throws Exception
+    {
+        if (topology instanceof MaskedTopology)
+        {
+            final int shape = getTopology(((MaskedTopology)topology).getTopology());
+            
+            //only a single mask is stored
+            if ((shape & TOPOLOGY_MASKED) != 0)
+                throw new Exception("A masked topology inside a masked topology can't be encoded");
+            
+            return shape | TOPOLOGY_MASKED;
+        }
+        
+        if (topology instanceof SquareTopology)
+            return TOPOLOGY_SQUARE;
+        if (topology instanceof HexTopology)
+            return TOPOLOGY_HEX;
+        if (topology instanceof TriangleTopology)
+            return TOPOLOGY_TRIANGLE;
+        
+        throw new Exception("Topology can't be encoded " + topology.getClass().getName());
+    }
+    
+    /**
+     * Create the topology
+     * @param topology The topology as stored in the header
+     * @param cols Total columns
+     * @param rows Total rows
+     * @param buffer The buffer positioned at the mask, only read if the topology is masked
+     * @return The topology of the maze
+     * @throws Exception If the topology is not supported or the mask is not valid
+     */
+    private static ITopology createTopology(final int topology, final int cols, final int rows, final ByteBuffer buffer) throws Exception
+    {
+        final ITopology shape;
+        
+        switch (topology & ~TOPOLOGY_MASKED)
+        {
+            case TOPOLOGY_SQUARE:
+                shape = new SquareTopology(cols, rows);
+                break;
+                
+            case TOPOLOGY_HEX:
+                shape = new HexTopology(cols, rows);
+                break;
+                
+            case TOPOLOGY_TRIANGLE:
+                shape = new TriangleTopology(cols, rows);
+                break;
+                
+            default:
+                throw new Exception("Topology not supported " + topology);
+        }
+        
+        if ((topology & TOPOLOGY_MASKED) == 0)
+            return shape;
+        
+        if (buffer.remaining() < getMaskLength(shape.getSize()))
+            throw new Exception("The buffer does not contain the mask");
+        
+        final long[] mask = new long[(int)(getMaskLength(shape.getSize()) / 8)];
+        
+        for (int i = 0; i < mask.length; i++)
+        {
+            mask[i] = buffer.getLong();
+        }
+        
+        return new MaskedTopology(shape, mask);
+    }
+    
+    /**
+     * Encode the maze into a new buffer
+     * @param maze The generated maze
+     * @param seed The seed used to generate the maze
+     * @return A buffer containing the encoded maze, ready to be read
+     * @throws Exception If the maze is not created by one of the algorithms in {@link Algorithm}
+     */
+    public static ByteBuffer encode(final Maze maze, final long seed) throws Exception
+    {
+        final ByteBuffer buffer = ByteBuffer.allocate(getSize(maze));
+        
+        write(buffer, maze, seed);
+        
+        buffer.flip();
+        
+        return buffer;
+    }
+    
+    /**
+     * Write the maze to the buffer
+     * @param buffer The buffer that will contain the encoded maze, starting at its current position
+     * @param maze The generated maze
+     * @param seed The seed used to generate the maze
+     * @throws Exception If the maze is not created by one of the algorithms in {@link Algorithm}, or the topology can't be encoded
+     */
+    public static void write(final ByteBuffer buffer, final Maze maze, final long seed) throws Exception
+    {
+        final Algorithm algorithm = Algorithm.get(maze);
+        
+        if (algorithm == null)
+            throw new Exception("The maze is not created by a known algorithm " + maze.getClass().getName());
+        
+        final Grid grid = maze.getGrid();
+        final int topology = getTopology(grid.getTopology());
+        
+        buffer.putInt(MAGIC);
+        buffer.put(VERSION);
+        buffer.put((byte)algorithm.ordinal());
+        buffer.put((byte)topology);
+        buffer.putInt(maze.getCols());
+        buffer.putInt(maze.getRows());
+        buffer.putInt(maze.getStartCol());
+        buffer.putInt(maze.getStartRow());
+        buffer.putInt(maze.getFinishCol());
+        buffer.putInt(maze.getFinishRow());
+        buffer.putLong(seed);
+        
+        //the mask is 1 bit per room, the same layout the masked topology is created with
+        if ((topology & TOPOLOGY_MASKED) != 0)
+        {
+            for (int index = 0; index < grid.getSize(); index += 64)
+            {
+                long bits = 0;
+                
+                for (int bit = 0; bit < 64 && index + bit < grid.getSize(); bit++)
+                {
+                    if (grid.hasRoom(index + bit))
+                        bits |= (1L << bit);
+                }
+                
+                buffer.putLong(bits);
+            }
+        }
+        
+        //copy the walls as stored in the grid
+        grid.writeWalls(buffer);
+    }
+    
+    /**
+     * Write the maze to the channel
+     * @param channel The channel the encoded maze will be written to
+     * @param maze The generated maze
+     * @param seed The seed used to generate the maze
+     * @throws Exception If the maze is not created by one of the algorithms in {@link Algorithm}, the topology can't be encoded or the channel fails
+     */
+    public static void write(final WritableByteChannel channel, final Maze maze, final long seed) throws Exception
+    {
+        final ByteBuffer buffer = encode(maze, seed);
+        
+        //a channel may not write everything at once
+        while (buffer.hasRemaining())
+        {
+            channel.write(buffer);
+        }
+    }
+    
+    /**
+     * Read the maze from the buffer.<br>
+     * The maze returned is generated, every room is visited and the progress is complete
+     * @param buffer The buffer containing the encoded maze, starting at its current position
+     * @return The decoded maze
+     * @throws Exception If the buffer does not contain a valid encoded maze
+     */
+    public static Maze read(final ByteBuffer buffer) throws Exception
+    {
+        if (buffer.remaining() < HEADER_SIZE)
+            throw new Exception("The buffer is too small to contain a maze");
+        
+        checkHeader(buffer);
+        
+        //skip the magic and version, they have been checked
+        buffer.getInt();
+        buffer.get();
+        
+        final int ordinal = buffer.get();
+        final int topology = buffer.get();
+        final int cols = buffer.getInt();
+        final int rows = buffer.getInt();
+        final int startCol = buffer.getInt();
+        final int startRow = buffer.getInt();
+        final int finishCol = buffer.getInt();
+        final int finishRow = buffer.getInt();
+        
+        //skip the seed
+        buffer.getLong();
+        
+        //create the maze, which also checks the dimensions and the algorithm supports the topology
+        final Maze maze = Algorithm.values()[ordinal].create(createTopology(topology, cols, rows, buffer));
+        
+        if (buffer.remaining() < maze.getGrid().getWallsLength())
+            throw new Exception("The buffer does not contain all of the walls");
+        
+        //the start and finish have to be rooms of the maze, otherwise solving the maze would index outside of the grid
+        if (!hasRoom(maze, startCol, startRow))
+            throw new Exception("The start is not a room of the maze (" + startCol + ", " + startRow + ")");
+        if (!hasRoom(maze, finishCol, finishRow))
+            throw new Exception("The finish is not a room of the maze (" + finishCol + ", " + finishRow + ")");
+        
+        maze.getGrid().readWalls(buffer);
+        maze.setStartLocation(startCol, startRow);
+        maze.setFinishLocation(finishCol, finishRow);
+        
+        //flag the maze as generated
+        maze.getGrid().setVisitedAll(true);
+        maze.markStarted();
+        maze.updateProgress();
+        
+        return maze;
+    }
+    
+    /**
+     * Read the maze from the channel
+     * @param channel The channel containing the encoded maze
+     * @return The decoded maze
+     * @throws Exception If the channel does not contain a valid encoded maze
+     */
+    public static Maze read(final ReadableByteChannel channel) throws Exception
+    {
+        //read the header first so we know the size of the walls
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        
+        fill(channel, header);
+        
+        //check the header before the size of the walls is trusted
+        header.flip();
+        checkHeader(header);
+        
+        final ByteBuffer buffer = ByteBuffer.allocate((int)getSize(header.get(TOPOLOGY_POSITION), header.getInt(COLS_POSITION), header.getInt(COLS_POSITION + 4)));
+        
+        buffer.put(header);
+        
+        fill(channel, buffer);
+        
+        return read((ByteBuffer)buffer.flip());
+    }
+    
+    /**
+     * Read the maze from the file.<br>
+     * The file is memory mapped, so the walls are copied straight from the mapped pages into the grid
+     * @param file The file containing the encoded maze
+     * @return The decoded maze
+     * @throws Exception If the file does not contain a valid encoded maze
+     */
+    public static Maze read(final File file) throws Exception
+    {
+        final FileInputStream stream = new FileInputStream(file);
+        
+        try
+        {
+            final FileChannel channel = stream.getChannel();
+            
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            
+            return read(buffer);
+        }
+        finally
+        {
+            stream.close();
+        }
+    }
+    
+    /**
+     * Check the header.<br>
+     * Everything read from the header is checked before the size of the maze is used to create any objects
+     * @param buffer The buffer containing the header, starting at its current position. The position is not changed
+     * @throws Exception If the header is not valid or the maze is too large to decode
+     */
+    private static void checkHeader(final ByteBuffer buffer) throws Exception
+    {
+        final int position = buffer.position();
+        
+        if (buffer.getInt(position) != MAGIC)
+            throw new Exception("The buffer does not contain a maze");
+        
+        final byte version = buffer.get(position + 4);
+        
+        if (version != VERSION)
+            throw new Exception("Version not supported " + version);
+        
+        final int ordinal = buffer.get(position + 5);
+        
+        if (ordinal < 0 || ordinal >= Algorithm.values().length)
+            throw new Exception("Algorithm not supported " + ordinal);
+        
+        final int topology = buffer.get(position + TOPOLOGY_POSITION);
+        
+        if ((topology & ~TOPOLOGY_MASKED) < TOPOLOGY_SQUARE || (topology & ~TOPOLOGY_MASKED) > TOPOLOGY_TRIANGLE)
+            throw new Exception("Topology not supported " + topology);
+        
+        final int cols = buffer.getInt(position + COLS_POSITION);
+        final int rows = buffer.getInt(position + COLS_POSITION + 4);
+        
+        if (cols < 1 || rows < 1)
+            throw new Exception("The maze must contain at least 1 column and 1 row (" + cols + ", " + rows + ")");
+        if ((long)cols * rows > Integer.MAX_VALUE || getSize(topology, cols, rows) > Integer.MAX_VALUE)
+            throw new Exception("The maze is too large (" + cols + ", " + rows + ")");
+    }
+    
+    /**
+     * Do we have the room?
+     * @param maze The decoded maze
+     * @param col Column
+     * @param row Row
+     * @return true if the location is inside the maze and is part of the grid, false otherwise
+     */
+    private static boolean hasRoom(final Maze maze, final int col, final int row)
+    {
+        return (maze.hasBounds(col, row) && maze.getGrid().hasRoom(maze.getGrid().getIndex(col, row)));
+    }
+    
+    /**
+     * Get the seed without decoding the maze
+     * @param buffer The buffer containing the encoded maze, starting at its current position
+     * @return The seed used to generate the maze
+     */
+    public static long getSeed(final ByteBuffer buffer)
+    {
+        return buffer.getLong(buffer.position() + SEED_POSITION);
+    }
+    
+    /**
+     * Read from the channel until the buffer is full
+     * @param channel The channel we are reading
+     * @param buffer The buffer to fill
+     * @throws IOException If the channel ends before the buffer is full
+     */
+    private static void fill(final ReadableByteChannel channel, final ByteBuffer buffer) throws IOException
+    {
+        while (buffer.hasRemaining())
+        {
+            if (channel.read(buffer) < 0)
+                throw new IOException("The channel ended before the maze was read");
+        }
+    }
+}
\ No newline at end of file
@@ -1,7 +1,6 @@
 package com.gamesbykevin.androidframework.maze;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Random;
 
 /**
  * Maze Helper methods
@@ -62,138 +61,193 @@ public class MazeHelper
      * We will assign the cost of each cell.<br>
      * The starting point will have a cost of 0.<br>
      * Each neighboring cell will contain the cost of the previous location + 1.<br>
+     * Every room reached from the starting point is flagged as visited.<br>
+     * A new {@link DistanceField} is created every call, use {@link #calculateCost(Maze, DistanceField)} when called every frame
      */
     public static void calculateCost(final Maze maze) throws Exception
     {
-        //mark all rooms as not visited so we know which ones to check
-        for (int row = 0; row < maze.getRows(); row++)
-        {
-            for (int col = 0; col < maze.getCols(); col++)
-            {
-                maze.getRoom(col, row).setVisited(false);
-            }
-        }
-        
-        //create empty list of optional walls
-        List<Room> options = new ArrayList<Room>();
+        calculateCost(maze, new DistanceField(maze.getGrid()));
+    }
+    
+    /**
+     * We will assign the cost of each cell.<br>
+     * The starting point will have a cost of 0.<br>
+     * Each neighboring cell will contain the cost of the previous location + 1.<br>
+     * Every room reached from the starting point is flagged as visited, see {@link DistanceField}
+     * @param maze The generated maze
+     * @param field The distance field of the maze, reused so no objects are created. It holds the distances from the starting point afterwards
+     * @throws Exception If the starting point is not a room of the maze
+     */
+    public static void calculateCost(final Maze maze, final DistanceField field) throws Exception
+    {
+        final Grid grid = maze.getGrid();
         
-        //get the room at the starting point 
-        Room room = maze.getRoom(maze.getStartCol(), maze.getStartRow());
+        if (!maze.hasBounds(maze.getStartCol(), maze.getStartRow()) || !grid.hasRoom(grid.getIndex(maze.getStartCol(), maze.getStartRow())))
+            throw new Exception("The start is not a room of the maze (" + maze.getStartCol() + ", " + maze.getStartRow() + ")");
         
-        //the starting point will have a cost of 0
-        room.setCost(0);
+        //calculate the distance of every room from the starting point
+        field.calculate(grid.getIndex(maze.getStartCol(), maze.getStartRow()));
         
-        //add the room to our options list
-        options.add(room);
+        //mark all rooms as not visited so only the rooms reached are flagged
+        setVisitedAll(maze, false);
         
-        //continue as long as we have rooms to check
-        while (!options.isEmpty())
+        //assign the cost of each room reached
+        for (int position = 0; position < field.getReached(); position++)
         {
-            //get the current room
-            room = options.get(0);
-            
-            //flag the current room as visited
-            room.setVisited(true);
-            
-            //check if the west room can be added to the options list
-            performRoomCheck(maze, room, Room.Wall.West, options);
+            final int index = field.getReached(position);
             
-            //check if the east room can be added to the options list
-            performRoomCheck(maze, room, Room.Wall.East, options);
-            
-            //check if the north room can be added to the options list
-            performRoomCheck(maze, room, Room.Wall.North, options);
-            
-            //check if the south room can be added to the options list
-            performRoomCheck(maze, room, Room.Wall.South, options);
-            
-            //now that we have checked the current room, remove from our list
-            options.remove(0);
+            grid.setCost(index, field.getDistance(index));
+            grid.setVisited(index, true);
         }
     }
     
     /**
-     * Check if we can add the neighbor room to the existing options list.<br>
-     * If so we will add to the options list.
-     * @param current The current room we are in
-     * @param direction The direction we want to check from the current room
-     * @param options List of existing rooms we can add to
-     * @throws Exception If the specified direction is not handled
+     * Locate the finish position automatically.<br>
+     * We will assign the cost of reach room.<br>
+     * Then the room with the highest cost (room furthest from starting point) will be the finish.
      */
-    private static void performRoomCheck(final Maze maze, final Room current, final Room.Wall direction, final List<Room> options) throws Exception
+    public static void locateFinish(final Maze maze) throws Exception
     {
-        Room room = null;
+        final DistanceField field = new DistanceField(maze.getGrid());
+        
+        //calculate the cost of each cell, the field already knows the farthest room
+        calculateCost(maze, field);
         
-        switch (direction)
+        final int index = field.getFarthest();
+        
+        //the finish is only moved if a room is farther than the start
+        if (maze.getGrid().getCost(index) > 0)
+            maze.setFinishLocation(maze.getGrid().getCol(index), maze.getGrid().getRow(index));
+    }
+    
+    /**
+     * Place the start and finish at the ends of the longest path in the maze.<br>
+     * See {@link #locateDiameter(Maze, DistanceField)}
+     * @param maze The generated maze
+     * @return The number of steps from the start to the finish
+     */
+    public static int locateDiameter(final Maze maze)
+    {
+        return locateDiameter(maze, new DistanceField(maze.getGrid()));
+    }
+    
+    /**
+     * Place the start and finish at the ends of the longest path in the maze.<br>
+     * The room farthest from any room is one end of the longest path, and the room farthest from that end is the other.<br>
+     * This is exact for a perfect maze (no loops), for a maze with loops it is a good estimate.<br>
+     * The search begins at the start, or the first room of the grid if the start is not a room (outside of a mask).<br>
+     * The costs and visited flags of the rooms are not changed.
+     * @param maze The generated maze
+     * @param field The distance field of the maze, reused so no objects are created
+     * @return The number of steps from the start to the finish
+     */
+    public static int locateDiameter(final Maze maze, final DistanceField field)
+    {
+        final Grid grid = maze.getGrid();
+        
+        int first = (maze.hasBounds(maze.getStartCol(), maze.getStartRow())) ? grid.getIndex(maze.getStartCol(), maze.getStartRow()) : 0;
+        
+        //any room works for the first pass, so use the first room of the grid when the start is not one
+        while (!grid.hasRoom(first))
         {
-            case East:
-                room = maze.getRoom(current.getCol() + 1, current.getRow());
-                break;
-                
-            case West:
-                room = maze.getRoom(current.getCol() - 1, current.getRow());
-                break;
-                
-            case South:
-                room = maze.getRoom(current.getCol(), current.getRow() + 1);
-                break;
-                
-            case North:
-                room = maze.getRoom(current.getCol(), current.getRow() - 1);
-                break;
-                
-            default:
-                throw new Exception("Direction not setup here " + direction.toString());
+            first = (first + 1) % grid.getSize();
         }
         
-        //make sure room exists and we haven't already visited
-        if (room != null && !room.hasVisited())
+        //the first pass finds one end of the longest path
+        field.calculate(first);
+        
+        final int start = field.getFarthest();
+        
+        //the second pass finds the other end
+        field.calculate(start);
+        
+        final int finish = field.getFarthest();
+        
+        maze.setStartLocation(grid.getCol(start), grid.getRow(start));
+        maze.setFinishLocation(grid.getCol(finish), grid.getRow(finish));
+        
+        return field.getMaxDistance();
+    }
+    
+    /**
+     * Braid the maze by removing dead ends.<br>
+     * The rooms are checked once in order, and each dead end is opened with the given probability.<br>
+     * A wall towards a neighbor that is also a dead end is preferred, so a single opening can remove 2 dead ends.<br>
+     * The same maze and seed always produce the same result.
+     * @param maze The generated maze
+     * @param ratio The probability a dead end is removed, from 0.0 (none) to 1.0 (all)
+     * @param random Object used to make random decisions
+     * @return The number of walls removed, each one creates a loop in a perfect maze
+     * @throws Exception If the ratio is not between 0.0 and 1.0
+     */
+    public static int braid(final Maze maze, final double ratio, final Random random) throws Exception
+    {
+        if (ratio < 0 || ratio > 1)
+            throw new Exception("The ratio must be between 0.0 and 1.0");
+        
+        final Grid grid = maze.getGrid();
+        final int sides = grid.getSides();
+        
+        //temporary lists of the sides we can open, for a square grid each side is the ordinal of the wall
+        final int[] options = new int[sides];
+        final int[] preferred = new int[sides];
+        
+        int loops = 0;
+        
+        for (int index = 0; index < grid.getSize(); index++)
         {
-            //if there isn't a wall blocking the current room
-            if (!current.hasWall(direction))
+            //a dead end has a single passage, earlier openings may have changed that so check now
+            if (getPassages(grid, index) != 1)
+                continue;
+            
+            if (random.nextDouble() >= ratio)
+                continue;
+            
+            int count = 0, countPreferred = 0;
+            
+            for (int side = 0; side < sides; side++)
             {
-                //assign the cost
-                room.setCost(current.getCost() + 1);
+                final int neighbor = grid.getNeighbor(index, side);
+                
+                if (neighbor < 0 || !grid.hasWall(index, side))
+                    continue;
                 
-                //mark if as visited
-                room.setVisited(true);
+                options[count++] = side;
                 
-                //add it to our list of rooms to check
-                options.add(room);
+                if (getPassages(grid, neighbor) == 1)
+                    preferred[countPreferred++] = side;
             }
+            
+            //a 1 room wide maze may have nothing to open
+            if (count == 0)
+                continue;
+            
+            final int side = (countPreferred > 0) ? preferred[random.nextInt(countPreferred)] : options[random.nextInt(count)];
+            
+            grid.join(index, grid.getNeighbor(index, side));
+            loops++;
         }
+        
+        return loops;
     }
     
     /**
-     * Locate the finish position automatically.<br>
-     * We will assign the cost of reach room.<br>
-     * Then the room with the highest cost (room furthest from starting point) will be the finish.
+     * Count the passages of the room
+     * @param grid The grid containing the walls
+     * @param index The index of the room
+     * @return The number of neighbors the room is connected to
      */
-    public static void locateFinish(final Maze maze) throws Exception
+    private static int getPassages(final Grid grid, final int index)
     {
-        //calculate the cost of each cell
-        calculateCost(maze);
+        int count = 0;
         
-        //the cost to beat
-        int cost = 0;
-        
-        for (int row = 0; row < maze.getRows(); row++)
+        for (int side = 0; side < grid.getSides(); side++)
         {
-            for (int col = 0; col < maze.getCols(); col++)
-            {
-                final Room room = maze.getRoom(col, row);
-                
-                //if the cost is higher than our record
-                if (room.getCost() > cost)
-                {
-                    //assign the winning cost
-                    cost = room.getCost();
-                    
-                    //assign the finish location
-                    maze.setFinishLocation(col, row);
-                }
-            }
+            if (!grid.hasWall(index, side) && grid.getNeighbor(index, side) >= 0)
+                count++;
         }
+        
+        return count;
     }
     
     /**
@@ -203,14 +257,11 @@ public class MazeHelper
      */
     public static boolean hasVisited(final Maze maze)
     {
-        for (int row = 0; row < maze.getRows(); row++)
+        for (int index = 0; index < maze.getGrid().getSize(); index++)
         {
-            for (int col = 0; col < maze.getCols(); col++)
-            {
-                //if this room has been visited return true
-                if (maze.getRoom(col, row).hasVisited())
-                    return true;
-            }
+            //if this room has been visited return true
+            if (maze.getGrid().hasVisited(index))
+                return true;
         }
         
         //no rooms have been visited
@@ -223,12 +274,6 @@ public class MazeHelper
      */
     public static void setVisitedAll(final Maze maze, final boolean visited)
     {
-        for (int row = 0; row < maze.getRows(); row++)
-        {
-            for (int col = 0; col < maze.getCols(); col++)
-            {
-                maze.getRoom(col, row).setVisited(visited);
-            }
-        }
+        maze.getGrid().setVisitedAll(visited);
     }
 }
\ No newline at end of file
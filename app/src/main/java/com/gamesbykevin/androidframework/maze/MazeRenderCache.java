@@ -0,0 +1,262 @@
+package com.gamesbykevin.androidframework.maze;
+
+import com.gamesbykevin.androidframework.maze.Room.Wall;
+import com.gamesbykevin.androidframework.resources.Disposable;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Rect;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Render cache of a generated maze.<br>
+ * The maze is drawn once into square bitmap tiles, and each frame only the tiles visible on the canvas are drawn.<br>
+ * The tiles are created when first visible, and the least recently used tiles are recycled once the capacity is reached.<br>
+ * The tiles are in maze coordinates, so a new (x, y) only moves the tiles, while a new room dimension<br>
+ * or any change to the walls of the grid creates the tiles again.
+ * @author GOD
+ */
+public class MazeRenderCache implements Disposable
+{
+    /**
+     * The default pixel dimension of a tile
+     */
+    public static final int DEFAULT_TILE_SIZE = 256;
+    
+    /**
+     * The default number of tiles kept in memory
+     */
+    public static final int DEFAULT_CAPACITY = 24;
+    
+    //the maze we are rendering
+    private Maze maze;
+    
+    //the pixel dimension of each tile
+    private final int tileSize;
+    
+    //the number of tiles kept in memory
+    private final int capacity;
+    
+    //the tiles in memory, ordered from least to most recently used
+    private LinkedHashMap<Integer, Bitmap> tiles;
+    
+    //the room dimension and grid modifications the tiles were created with
+    private int d = -1, modifications = -1;
+    
+    //the canvas used to draw the tiles
+    private Canvas canvas;
+    
+    //object used to draw the tiles
+    private Paint paint;
+    
+    //the visible area of the canvas
+    private final Rect bounds = new Rect();
+    
+    /**
+     * Create a render cache with the default tile size and capacity
+     * @param maze The maze we are rendering
+     */
+    public MazeRenderCache(final Maze maze)
+    {
+        this(maze, DEFAULT_TILE_SIZE, DEFAULT_CAPACITY);
+    }
+    
+    /**
+     * Create a render cache
+     * @param maze The maze we are rendering
+     * @param tileSize The pixel dimension of each tile
+     * @param capacity The number of tiles kept in memory, more are kept if needed to fill the canvas
+     */
+    public MazeRenderCache(final Maze maze, final int tileSize, final int capacity)
+    {
+        this.maze = maze;
+        this.tileSize = tileSize;
+        this.capacity = capacity;
+        
+        //access order so the eldest entry is the least recently used
+        this.tiles = new LinkedHashMap<Integer, Bitmap>(16, 0.75f, true);
+    }
+    
+    @Override
+    public void dispose()
+    {
+        if (tiles != null)
+        {
+            invalidate();
+            tiles = null;
+        }
+        
+        this.maze = null;
+        this.canvas = null;
+        this.paint = null;
+    }
+    
+    /**
+     * Recycle every tile, so the tiles are created again the next time they are visible
+     */
+    public void invalidate()
+    {
+        for (Bitmap tile : tiles.values())
+        {
+            tile.recycle();
+        }
+        
+        tiles.clear();
+    }
+    
+    /**
+     * Get the tile count
+     * @return The number of tiles currently in memory
+     */
+    public int getTileCount()
+    {
+        return this.tiles.size();
+    }
+    
+    /**
+     * Render the visible tiles of the maze
+     * @param canvas Object where the maze is drawn
+     * @param x x-coordinate of the maze
+     * @param y y-coordinate of the maze
+     * @param d The pixel dimension of a single room
+     */
+    public void render(final Canvas canvas, final int x, final int y, final int d)
+    {
+        //the tiles no longer match the maze
+        if (d != this.d || maze.getGrid().getModifications() != this.modifications)
+        {
+            invalidate();
+            
+            this.d = d;
+            this.modifications = maze.getGrid().getModifications();
+        }
+        
+        //the pixel size of the maze, including the outline
+        final int width = (maze.getCols() * d) + 1;
+        final int height = (maze.getRows() * d) + 1;
+        
+        //locate the visible area in maze coordinates
+        if (!canvas.getClipBounds(bounds))
+            return;
+        
+        final int left = Math.max(0, bounds.left - x);
+        final int top = Math.max(0, bounds.top - y);
+        final int right = Math.min(width, bounds.right - x);
+        final int bottom = Math.min(height, bounds.bottom - y);
+        
+        //the maze is not visible
+        if (left >= right || top >= bottom)
+            return;
+        
+        final int col1 = left / tileSize;
+        final int row1 = top / tileSize;
+        final int col2 = (right - 1) / tileSize;
+        final int row2 = (bottom - 1) / tileSize;
+        
+        //keep at least the visible tiles so a tile drawn this frame is never recycled
+        final int limit = Math.max(capacity, (col2 - col1 + 1) * (row2 - row1 + 1));
+        
+        for (int row = row1; row <= row2; row++)
+        {
+            for (int col = col1; col <= col2; col++)
+            {
+                final Integer key = Integer.valueOf((row * ((width + tileSize - 1) / tileSize)) + col);
+                
+                Bitmap tile = tiles.get(key);
+                
+                if (tile == null)
+                {
+                    tile = createTile(col, row, width, height);
+                    
+                    //recycle the least recently used tiles to make room
+                    final Iterator<Map.Entry<Integer, Bitmap>> iterator = tiles.entrySet().iterator();
+                    
+                    while (tiles.size() >= limit && iterator.hasNext())
+                    {
+                        iterator.next().getValue().recycle();
+                        iterator.remove();
+                    }
+                    
+                    tiles.put(key, tile);
+                }
+                
+                canvas.drawBitmap(tile, x + (col * tileSize), y + (row * tileSize), null);
+            }
+        }
+    }
+    
+    /**
+     * Draw the walls of the maze into a new tile
+     * @param tileCol The column of the tile
+     * @param tileRow The row of the tile
+     * @param width The pixel width of the maze
+     * @param height The pixel height of the maze
+     * @return The new tile
+     */
+    private Bitmap createTile(final int tileCol, final int tileRow, final int width, final int height)
+    {
+        //the pixel location of the tile in the maze
+        final int left = tileCol * tileSize;
+        final int top = tileRow * tileSize;
+        
+        final Bitmap tile = Bitmap.createBitmap(Math.min(tileSize, width - left), Math.min(tileSize, height - top), Bitmap.Config.ARGB_8888);
+        
+        if (canvas == null)
+            canvas = new Canvas();
+        if (paint == null)
+            paint = new Paint();
+        
+        canvas.setBitmap(tile);
+        canvas.save();
+        canvas.translate(-left, -top);
+        
+        //fill background
+        paint.setStyle(Paint.Style.FILL);
+        paint.setColor(Color.BLACK);
+        canvas.drawRect(0, 0, width - 1, height - 1, paint);
+        
+        //draw the outline
+        paint.setStyle(Paint.Style.STROKE);
+        paint.setColor(Color.WHITE);
+        canvas.drawRect(0, 0, width - 1, height - 1, paint);
+        
+        //only the rooms that overlap the tile need to be drawn
+        final int col1 = Math.max(0, (left / d) - 1);
+        final int row1 = Math.max(0, (top / d) - 1);
+        final int col2 = Math.min(maze.getCols() - 1, (left + tileSize) / d);
+        final int row2 = Math.min(maze.getRows() - 1, (top + tileSize) / d);
+        
+        final Grid grid = maze.getGrid();
+        
+        for (int row = row1; row <= row2; row++)
+        {
+            final int y1 = row * d;
+            
+            for (int col = col1; col <= col2; col++)
+            {
+                final int x1 = col * d;
+                
+                final int walls = grid.getWalls(grid.getIndex(col, row));
+                
+                if ((walls & Wall.East.getBit()) != 0)
+                    canvas.drawLine(x1 + d, y1, x1 + d, y1 + d, paint);
+                if ((walls & Wall.West.getBit()) != 0)
+                    canvas.drawLine(x1, y1, x1, y1 + d, paint);
+                if ((walls & Wall.North.getBit()) != 0)
+                    canvas.drawLine(x1, y1, x1 + d, y1, paint);
+                if ((walls & Wall.South.getBit()) != 0)
+                    canvas.drawLine(x1, y1 + d, x1 + d, y1 + d, paint);
+            }
+        }
+        
+        canvas.restore();
+        canvas.setBitmap(null);
+        
+        return tile;
+    }
+}
\ No newline at end of file
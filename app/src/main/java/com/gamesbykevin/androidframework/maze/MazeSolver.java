@@ -0,0 +1,443 @@
+package com.gamesbykevin.androidframework.maze;
+
+import com.gamesbykevin.androidframework.resources.Disposable;
+
+import java.util.Arrays;
+
+/**
+ * Find the path between 2 rooms of a maze.<br>
+ * The buffers are created once and reused by every call, a room is only considered visited<br>
+ * when its stamp matches the current search, so nothing has to be reset between searches.
+ * @author GOD
+ */
+public class MazeSolver implements Disposable
+{
+    /**
+     * The available methods to solve a maze
+     */
+    public enum Method
+    {
+        /**
+         * A* search using the distance to the goal measured by the topology of the grid
+         */
+        AStar, 
+        
+        /**
+         * Breadth first search
+         */
+        BreadthFirst, 
+        
+        /**
+         * Fill every dead end until only the rooms on a path remain, then search the remaining rooms
+         */
+        DeadEndFilling
+    }
+    
+    //the grid containing the walls
+    private Grid grid;
+    
+    //the search each room was last visited by
+    private int[] stamps;
+    
+    //the current search
+    private int stamp = 0;
+    
+    //the room we came from to reach each room
+    private int[] parents;
+    
+    //the number of steps from the start to each room (A*), or the number of open passages (dead end filling)
+    private int[] costs;
+    
+    //the rooms waiting to be expanded
+    private int[] queue;
+    
+    //the binary heap used by A*, the rooms and their priority
+    private int[] heap, priorities;
+    
+    //the number of entries in the heap
+    private int heapSize = 0;
+    
+    //the rooms that have been filled, only used by dead end filling
+    private boolean[] filled;
+    
+    //the path from the start to the goal
+    private int[] path;
+    
+    //the number of rooms in the path
+    private int pathLength = 0;
+    
+    //the number of rooms expanded by the last search
+    private int expanded = 0;
+    
+    //temporary list of neighbors, one for each side of a room
+    private final int[] neighbors;
+    
+    /**
+     * Create a new solver
+     * @param grid The grid containing the walls of the maze
+     */
+    public MazeSolver(final Grid grid)
+    {
+        this.grid = grid;
+        this.stamps = new int[grid.getSize()];
+        this.parents = new int[grid.getSize()];
+        this.costs = new int[grid.getSize()];
+        this.queue = new int[grid.getSize()];
+        this.heap = new int[grid.getSize()];
+        this.priorities = new int[grid.getSize()];
+        this.path = new int[grid.getSize()];
+        this.neighbors = new int[grid.getSides()];
+    }
+    
+    @Override
+    public void dispose()
+    {
+        this.grid = null;
+        this.stamps = null;
+        this.parents = null;
+        this.costs = null;
+        this.queue = null;
+        this.heap = null;
+        this.priorities = null;
+        this.filled = null;
+        this.path = null;
+    }
+    
+    /**
+     * Solve the maze from the start to the finish location
+     * @param method The method used to solve the maze
+     * @param maze The maze containing the start and finish location
+     * @return The number of rooms in the path, 0 if the finish can't be reached
+     */
+    public int solve(final Method method, final Maze maze)
+    {
+        return solve(method, grid.getIndex(maze.getStartCol(), maze.getStartRow()), grid.getIndex(maze.getFinishCol(), maze.getFinishRow()));
+    }
+    
+    /**
+     * Solve the maze.<br>
+     * The path is stored in {@link #getPath()}
+     * @param method The method used to solve the maze
+     * @param start The index of the first room
+     * @param goal The index of the last room
+     * @return The number of rooms in the path including the start and goal, 0 if the goal can't be reached
+     */
+    public int solve(final Method method, final int start, final int goal)
+    {
+        //start a new search, when the stamps run out start over
+        if (++stamp == Integer.MAX_VALUE)
+        {
+            Arrays.fill(stamps, 0);
+            stamp = 1;
+        }
+        
+        this.expanded = 0;
+        this.pathLength = 0;
+        
+        final boolean found;
+        
+        switch (method)
+        {
+            case AStar:
+                found = searchAStar(start, goal);
+                break;
+            
+            case DeadEndFilling:
+                fillDeadEnds(start, goal);
+                found = searchBreadthFirst(start, goal, true);
+                break;
+            
+            default:
+                found = searchBreadthFirst(start, goal, false);
+                break;
+        }
+        
+        if (found)
+            createPath(start, goal);
+        
+        return this.pathLength;
+    }
+    
+    /**
+     * Get the path.<br>
+     * The array is reused by every call, only the first {@link #getPathLength()} entries are part of the path
+     * @return The index of each room on the path from the start to the goal
+     */
+    public int[] getPath()
+    {
+        return this.path;
+    }
+    
+    /**
+     * Get the path length
+     * @return The number of rooms in the path found by the last call, 0 if no path was found
+     */
+    public int getPathLength()
+    {
+        return this.pathLength;
+    }
+    
+    /**
+     * Get the expanded count
+     * @return The number of rooms expanded by the last call, useful to compare the methods
+     */
+    public int getExpanded()
+    {
+        return this.expanded;
+    }
+    
+    /**
+     * Breadth first search from the start until the goal is reached
+     * @param start The index of the first room
+     * @param goal The index of the last room
+     * @param skipFilled true if rooms filled by dead end filling are skipped
+     * @return true if the goal was reached, false otherwise
+     */
+    private boolean searchBreadthFirst(final int start, final int goal, final boolean skipFilled)
+    {
+        int head = 0, tail = 0;
+        
+        stamps[start] = stamp;
+        parents[start] = start;
+        queue[tail++] = start;
+        
+        while (head < tail)
+        {
+            final int index = queue[head++];
+            
+            if (index == goal)
+                return true;
+            
+            expanded++;
+            
+            final int count = grid.getPassages(index, neighbors);
+            
+            for (int i = 0; i < count; i++)
+            {
+                final int neighbor = neighbors[i];
+                
+                //skip rooms already reached, or filled as part of a dead end
+                if (stamps[neighbor] == stamp || (skipFilled && filled[neighbor]))
+                    continue;
+                
+                stamps[neighbor] = stamp;
+                parents[neighbor] = index;
+                queue[tail++] = neighbor;
+            }
+        }
+        
+        return false;
+    }
+    
+    /**
+     * A* search from the start until the goal is reached
+     * @param start The index of the first room
+     * @param goal The index of the last room
+     * @return true if the goal was reached, false otherwise
+     */
+    private boolean searchAStar(final int start, final int goal)
+    {
+        final int goalCol = grid.getCol(goal);
+        final int goalRow = grid.getRow(goal);
+        
+        heapSize = 0;
+        
+        stamps[start] = stamp;
+        parents[start] = start;
+        costs[start] = 0;
+        push(start, getHeuristic(start, goal, goalCol, goalRow));
+        
+        while (heapSize > 0)
+        {
+            final int priority = priorities[0];
+            final int index = pop();
+            
+            //skip entries that were replaced by a shorter route
+            if (priority - getHeuristic(index, goal, goalCol, goalRow) > costs[index])
+                continue;
+            
+            if (index == goal)
+                return true;
+            
+            expanded++;
+            
+            final int cost = costs[index] + 1;
+            final int count = grid.getPassages(index, neighbors);
+            
+            for (int i = 0; i < count; i++)
+            {
+                final int neighbor = neighbors[i];
+                
+                //only continue if the room is new or we found a shorter route
+                if (stamps[neighbor] == stamp && costs[neighbor] <= cost)
+                    continue;
+                
+                stamps[neighbor] = stamp;
+                parents[neighbor] = index;
+                costs[neighbor] = cost;
+                push(neighbor, cost + getHeuristic(neighbor, goal, goalCol, goalRow));
+            }
+        }
+        
+        return false;
+    }
+    
+    /**
+     * Fill the dead ends.<br>
+     * Each room with a single passage (other than the start and goal) is filled,<br>
+     * which can turn its neighbor into a dead end as well
+     * @param start The index of the first room
+     * @param goal The index of the last room
+     */
+    private void fillDeadEnds(final int start, final int goal)
+    {
+        if (filled == null)
+            filled = new boolean[grid.getSize()];
+        
+        int head = 0, tail = 0;
+        
+        //count the passages of each room and locate the dead ends
+        for (int index = 0; index < grid.getSize(); index++)
+        {
+            filled[index] = false;
+            costs[index] = grid.getPassages(index, neighbors);
+            
+            if (costs[index] <= 1 && index != start && index != goal)
+                queue[tail++] = index;
+        }
+        
+        while (head < tail)
+        {
+            final int index = queue[head++];
+            
+            filled[index] = true;
+            expanded++;
+            
+            final int count = grid.getPassages(index, neighbors);
+            
+            for (int i = 0; i < count; i++)
+            {
+                final int neighbor = neighbors[i];
+                
+                if (filled[neighbor])
+                    continue;
+                
+                //the neighbor becomes a dead end once this passage is filled
+                if (--costs[neighbor] == 1 && neighbor != start && neighbor != goal)
+                    queue[tail++] = neighbor;
+            }
+        }
+    }
+    
+    /**
+     * Follow the parents back from the goal and store the path from the start
+     * @param start The index of the first room
+     * @param goal The index of the last room
+     */
+    private void createPath(final int start, final int goal)
+    {
+        int index = goal;
+        
+        path[pathLength++] = index;
+        
+        while (index != start)
+        {
+            index = parents[index];
+            path[pathLength++] = index;
+        }
+        
+        //reverse so the path starts at the start
+        for (int i = 0, j = pathLength - 1; i < j; i++, j--)
+        {
+            final int tmp = path[i];
+            path[i] = path[j];
+            path[j] = tmp;
+        }
+    }
+    
+    /**
+     * Get the heuristic.<br>
+     * The distance ignores the walls so it never overestimates, which keeps the path found the shortest
+     * @param index The index of the room
+     * @param goal The index of the goal
+     * @param goalCol The column of the goal
+     * @param goalRow The row of the goal
+     * @return The Manhattan distance for square rooms, otherwise the distance measured by the topology of the grid
+     */
+    private int getHeuristic(final int index, final int goal, final int goalCol, final int goalRow)
+    {
+        if (grid.isSquare())
+            return Math.abs(grid.getCol(index) - goalCol) + Math.abs(grid.getRow(index) - goalRow);
+        
+        return grid.getTopology().getDistance(index, goal);
+    }
+    
+    /**
+     * Add the room to the heap
+     * @param index The index of the room
+     * @param priority The estimated cost of the route through the room
+     */
+    private void push(final int index, final int priority)
+    {
+        //a room can be added again when a shorter route is found, so the heap may need to grow
+        if (heapSize == heap.length)
+        {
+            heap = Arrays.copyOf(heap, heapSize * 2);
+            priorities = Arrays.copyOf(priorities, heapSize * 2);
+        }
+        
+        int position = heapSize++;
+        
+        //move the entry up until its parent has a lower priority
+        while (position > 0)
+        {
+            final int parent = (position - 1) >> 1;
+            
+            if (priorities[parent] <= priority)
+                break;
+            
+            heap[position] = heap[parent];
+            priorities[position] = priorities[parent];
+            position = parent;
+        }
+        
+        heap[position] = index;
+        priorities[position] = priority;
+    }
+    
+    /**
+     * Remove the room with the lowest priority from the heap
+     * @return The index of the room
+     */
+    private int pop()
+    {
+        final int result = heap[0];
+        
+        //move the last entry to the top, then down until both children have a higher priority
+        final int index = heap[--heapSize];
+        final int priority = priorities[heapSize];
+        
+        int position = 0;
+        
+        while (true)
+        {
+            int child = (position << 1) + 1;
+            
+            if (child >= heapSize)
+                break;
+            if (child + 1 < heapSize && priorities[child + 1] < priorities[child])
+                child++;
+            if (priorities[child] >= priority)
+                break;
+            
+            heap[position] = heap[child];
+            priorities[position] = priorities[child];
+            position = child;
+        }
+        
+        heap[position] = index;
+        priorities[position] = priority;
+        
+        return result;
+    }
+}
\ No newline at end of file
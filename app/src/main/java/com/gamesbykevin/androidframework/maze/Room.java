@@ -8,37 +8,62 @@ import java.util.List;
 import java.util.UUID;
 
 /**
- * A single room in a maze
+ * A single room in a maze.<br>
+ * The room is a lightweight view of a location in a {@link Grid}, the room itself does not store any state.<br>
+ * Each room belongs to a set identified by an int label, see {@link #getSet()}
  * @author GOD
  */
 public class Room implements Disposable
 {
-    //have we visited this room
-    private boolean visited = false;
-    
-    //assign a unique object to identify the room
-    private UUID id;
-    
     /**
      * All of the possible walls in a room
      */
     public enum Wall
     {
-        North, South, West, East
+        North, South, West, East;
+        
+        /**
+         * Get the bit
+         * @return The bit representing this wall when stored in a {@link Grid}
+         */
+        public int getBit()
+        {
+            return (1 << ordinal());
+        }
+        
+        /**
+         * Get the opposite
+         * @return The wall on the other side of this wall in the neighboring room
+         */
+        public Wall getOpposite()
+        {
+            switch (this)
+            {
+                case North:
+                    return South;
+                    
+                case South:
+                    return North;
+                    
+                case West:
+                    return East;
+                    
+                default:
+                    return West;
+            }
+        }
     }
     
-    /**
-     * List of walls that this room has
-     */
-    private List<Wall> walls;
-    
     /**
      * The lowest cost a room can have
      */
     public static final int COST_MINIMUM = 0;
     
-    //the cost of this room, typically the number of rooms away from the start or finish etc....
-    private int cost = COST_MINIMUM;
+    //the grid containing the state of this room
+    private Grid grid;
+    
+    //the index of the room in the grid
+    private final int index;
     
     //the location of the room
     private final int col, row;
@@ -50,14 +75,34 @@ public class Room implements Disposable
      */
     public Room(final int col, final int row)
     {
+        //a stand alone room will have a grid of its own
+        this(new Grid(1, 1), 0, col, row);
+    }
+    
+    /**
+     * Create a view of the room at the location in the grid
+     * @param grid The grid containing the room
+     * @param col Column
+     * @param row Row
+     */
+    protected Room(final Grid grid, final int col, final int row)
+    {
+        this(grid, grid.getIndex(col, row), col, row);
+    }
+    
+    /**
+     * Create a view of the room
+     * @param grid The grid containing the room
+     * @param index The index of the room in the grid
+     * @param col Column
+     * @param row Row
+     */
+    protected Room(final Grid grid, final int index, final int col, final int row)
+    {
+        this.grid = grid;
+        this.index = index;
         this.col = col;
         this.row = row;
-        
-        //create a random unique identifier
-        setId(UUID.randomUUID());
-        
-        //create a list for our walls
-        this.walls = new ArrayList<Wall>();
     }
     
     /**
@@ -78,20 +123,58 @@ public class Room implements Disposable
         return this.row;
     }
     
+    /**
+     * Get the index
+     * @return The index of this room in the grid
+     */
+    public int getIndex()
+    {
+        return this.index;
+    }
+    
     @Override
     public void dispose()
     {
-        this.walls.clear();
-        this.walls = null;
+        //the room does not own the grid, so just remove the reference
+        this.grid = null;
+    }
+    
+    /**
+     * Get the set
+     * @return The label of the set this room belongs to
+     */
+    public int getSet()
+    {
+        return grid.getSet(index);
+    }
+    
+    /**
+     * Assign the set
+     * @param set The label of the set this room will belong to
+     */
+    public void setSet(final int set)
+    {
+        grid.setSet(index, set);
     }
     
     /**
-     * Get the id
-     * @return The unique identifier generated for this room
+     * Is this room part of the same set?
+     * @param room The room we want to check
+     * @return true if both rooms are in the same grid and have the same set label, false otherwise
+     */
+    public boolean hasSet(final Room room)
+    {
+        return (room.grid == grid && room.getSet() == getSet());
+    }
+    
+    /**
+     * Get the id.<br>
+     * The identifier is created the first time it is requested, use {@link #getSet()} when a unique identifier is not needed
+     * @return The unique identifier of the set this room belongs to
      */
     public UUID getId()
     {
-        return this.id;
+        return grid.getId(index);
     }
     
     /**
@@ -101,6 +184,10 @@ public class Room implements Disposable
      */
     public boolean hasId(final Room room)
     {
+        //compare the labels when possible so no identifier is created
+        if (room.grid == grid)
+            return hasSet(room);
+        
         return (hasId(room.getId()));
     }
     
@@ -120,7 +207,15 @@ public class Room implements Disposable
      */
     public final void setId(final Room room)
     {
-        setId(room.getId());
+        //copy the label when possible so no identifier is created
+        if (room.grid == grid)
+        {
+            setSet(room.getSet());
+        }
+        else
+        {
+            setId(room.getId());
+        }
     }
     
     /**
@@ -129,7 +224,7 @@ public class Room implements Disposable
      */
     public final void setId(final UUID id)
     {
-        this.id = id;
+        grid.setId(index, id);
     }
     
     /**
@@ -139,15 +234,7 @@ public class Room implements Disposable
      */
     public boolean addWall(final Wall wall)
     {
-        //if we already have it, it will not be added
-        if (hasWall(wall))
-            return false;
-        
-        //add the wall to the list
-        getWalls().add(wall);
-        
-        //wall was successfully added
-        return true;
+        return grid.addWall(index, wall);
     }
     
     /**
@@ -157,31 +244,15 @@ public class Room implements Disposable
      */
     public boolean hasWall(final Wall wall)
     {
-        //we can't have the wall if our list is empty
-        if (walls.isEmpty())
-            return false;
-        
-        //check each wall in our list
-        for (int index = 0; index < getWalls().size(); index++)
-        {
-            //if we have the wall return true
-            if (getWalls().get(index) == wall)
-                return true;
-        }
-        
-        //we did not find the wall return false
-        return false;
+        return grid.hasWall(index, wall);
     }
     
     /**
-     * Add all possible walls to the list
+     * Add all possible walls to the list, every side of the room for a grid that is not square
      */
     public void addAllWalls()
     {
-        for (Wall wall : Wall.values())
-        {
-            addWall(wall);
-        }
+        grid.setWalls(index, grid.getWallsAll());
     }
     
     /**
@@ -189,7 +260,7 @@ public class Room implements Disposable
      */
     public void removeAllWalls()
     {
-        getWalls().clear();
+        grid.setWalls(index, 0);
     }
     
     /**
@@ -199,31 +270,25 @@ public class Room implements Disposable
      */
     public boolean removeWall(final Wall wall)
     {
-        //check all the existing walls in our list
-        for (int index = 0; index < getWalls().size(); index++)
-        {
-            //if the walls match
-            if (getWalls().get(index) == wall)
-            {
-                //remove the wall
-                getWalls().remove(index);
-                
-                //a wall was removed return true;
-                return true;
-            }
-        }
-        
-        //no walls were removed
-        return false;
+        return grid.removeWall(index, wall);
     }
     
     /**
-     * Get the walls
+     * Get the walls.<br>
+     * The list is a copy, changes to it will not affect the room
      * @return The list of walls in this room
      */
     public List<Wall> getWalls()
     {
-        return this.walls;
+        List<Wall> walls = new ArrayList<Wall>();
+        
+        for (Wall wall : Wall.values())
+        {
+            if (hasWall(wall))
+                walls.add(wall);
+        }
+        
+        return walls;
     }
     
     /**
@@ -232,7 +297,7 @@ public class Room implements Disposable
      */
     public void setCost(final int cost)
     {
-        this.cost = cost;
+        grid.setCost(index, cost);
     }
     
     /**
@@ -241,7 +306,7 @@ public class Room implements Disposable
      */
     public int getCost()
     {
-        return this.cost;
+        return grid.getCost(index);
     }
     
     /**
@@ -250,7 +315,7 @@ public class Room implements Disposable
      */
     public void setVisited(final boolean visited)
     {
-        this.visited = visited;
+        grid.setVisited(index, visited);
     }
     
     /**
@@ -259,7 +324,7 @@ public class Room implements Disposable
      */
     public boolean hasVisited()
     {
-        return this.visited;
+        return grid.hasVisited(index);
     }
     
     /**
@@ -282,4 +347,28 @@ public class Room implements Disposable
     {
         return (getCol() == col && getRow() == row);
     }
+    
+    /**
+     * Rooms are equal when they are views of the same room in the same grid
+     * @param object The object we want to compare
+     * @return true if both rooms share the same grid and index, false otherwise
+     */
+    @Override
+    public boolean equals(final Object object)
+    {
+        if (this == object)
+            return true;
+        if (!(object instanceof Room))
+            return false;
+        
+        final Room room = (Room)object;
+        
+        return (room.grid == grid && room.index == index && room.hasLocation(this));
+    }
+    
+    @Override
+    public int hashCode()
+    {
+        return (System.identityHashCode(grid) * 31) + index;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,28 @@
+package com.gamesbykevin.androidframework.maze;
+
+/**
+ * Mix a seed with an index (SplitMix64), so neighboring indexes get unrelated seeds.<br>
+ * Shared by the batch generator and the chunked maze.
+ * @author GOD
+ */
+final class SeedMixer
+{
+    private SeedMixer()
+    {
+        //only static methods
+    }
+    
+    /**
+     * Mix the seed with the index
+     * @param seed The seed we want to mix
+     * @param index The index mixed into the seed
+     * @return The mixed seed
+     */
+    static long mix(final long seed, final int index)
+    {
+        long z = seed + ((index + 1) * 0x9E3779B97F4A7C15L);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
\ No newline at end of file
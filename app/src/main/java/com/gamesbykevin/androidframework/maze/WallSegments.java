@@ -0,0 +1,168 @@
+package com.gamesbykevin.androidframework.maze;
+
+import com.gamesbykevin.androidframework.maze.Room.Wall;
+import com.gamesbykevin.androidframework.resources.Disposable;
+
+/**
+ * The wall segments of a grid, ready to be drawn with a single Canvas.drawLines call.<br>
+ * A wall shared by 2 rooms is a single segment, and the segments are updated as the walls of the grid change.<br>
+ * Each segment is 4 floats (x1, y1, x2, y2) measured in rooms, so the canvas is scaled by the room dimension when drawn.
+ * @author GOD
+ */
+public class WallSegments implements IGridListener, Disposable
+{
+    //the grid containing the walls
+    private Grid grid;
+    
+    //the edges that currently have a wall, the position of each edge is also the position of its segment
+    private IndexSet edges;
+    
+    //the points of each segment, in the same order as the edges
+    private float[] points;
+    
+    //the number of horizontal edges, the vertical edges follow
+    private final int horizontal;
+    
+    /**
+     * Create the wall segments of the grid.<br>
+     * Add this object as a listener of the grid to keep the segments updated
+     * @param grid The grid containing the walls
+     */
+    public WallSegments(final Grid grid)
+    {
+        this.grid = grid;
+        
+        //each row has a horizontal edge above every room plus the bottom row, same for the vertical edges
+        this.horizontal = (grid.getRows() + 1) * grid.getCols();
+        
+        final int total = this.horizontal + (grid.getRows() * (grid.getCols() + 1));
+        
+        this.edges = new IndexSet(total);
+        this.points = new float[total * 4];
+        
+        onWallsReset();
+    }
+    
+    @Override
+    public void dispose()
+    {
+        if (edges != null)
+        {
+            edges.dispose();
+            edges = null;
+        }
+        
+        this.points = null;
+        this.grid = null;
+    }
+    
+    /**
+     * Get the points.<br>
+     * Only the first {@link #getCount()} * 4 values are valid
+     * @return The points of each segment (x1, y1, x2, y2) measured in rooms
+     */
+    public float[] getPoints()
+    {
+        return this.points;
+    }
+    
+    /**
+     * Get the count
+     * @return The number of wall segments
+     */
+    public int getCount()
+    {
+        return this.edges.getSize();
+    }
+    
+    @Override
+    public void onWallsChanged(final int index)
+    {
+        final int col = grid.getCol(index);
+        final int row = grid.getRow(index);
+        final int cols = grid.getCols();
+        
+        //a segment exists if the room or its neighbor has the wall
+        setEdge((row * cols) + col, hasWall(index, Wall.North));
+        setEdge(((row + 1) * cols) + col, hasWall(index, Wall.South));
+        setEdge(horizontal + (row * (cols + 1)) + col, hasWall(index, Wall.West));
+        setEdge(horizontal + (row * (cols + 1)) + col + 1, hasWall(index, Wall.East));
+    }
+    
+    @Override
+    public void onWallsReset()
+    {
+        edges.clear();
+        
+        for (int index = 0; index < grid.getSize(); index++)
+        {
+            onWallsChanged(index);
+        }
+    }
+    
+    /**
+     * Does the room or its neighbor have the wall between them?
+     * @param index The index of the room
+     * @param wall The wall we want to check
+     * @return true if either side has the wall, false otherwise
+     */
+    private boolean hasWall(final int index, final Wall wall)
+    {
+        if (grid.hasWall(index, wall))
+            return true;
+        
+        final int neighbor = grid.getNeighbor(index, wall);
+        
+        return (neighbor >= 0 && grid.hasWall(neighbor, wall.getOpposite()));
+    }
+    
+    /**
+     * Add or remove the segment of the edge
+     * @param edge The edge we want to update
+     * @param wall true if the edge has a wall, false otherwise
+     */
+    private void setEdge(final int edge, final boolean wall)
+    {
+        if (wall)
+        {
+            if (!edges.add(edge))
+                return;
+            
+            //the new edge is placed last
+            final int offset = (edges.getSize() - 1) * 4;
+            
+            if (edge < horizontal)
+            {
+                final int col = edge % grid.getCols();
+                final int row = edge / grid.getCols();
+                
+                points[offset] = col;
+                points[offset + 1] = row;
+                points[offset + 2] = col + 1;
+                points[offset + 3] = row;
+            }
+            else
+            {
+                final int col = (edge - horizontal) % (grid.getCols() + 1);
+                final int row = (edge - horizontal) / (grid.getCols() + 1);
+                
+                points[offset] = col;
+                points[offset + 1] = row;
+                points[offset + 2] = col;
+                points[offset + 3] = row + 1;
+            }
+        }
+        else
+        {
+            final int position = edges.indexOf(edge);
+            
+            if (position < 0)
+                return;
+            
+            //the last segment takes the place of the removed segment, the same as the set does
+            System.arraycopy(points, (edges.getSize() - 1) * 4, points, position * 4, 4);
+            
+            edges.remove(edge);
+        }
+    }
+}
\ No newline at end of file
@@ -1,11 +1,10 @@
 package com.gamesbykevin.androidframework.maze.algorithm;
 
 import com.gamesbykevin.androidframework.maze.Maze;
-import com.gamesbykevin.androidframework.maze.MazeHelper;
-import com.gamesbykevin.androidframework.maze.Room;
+import com.gamesbykevin.androidframework.maze.Room.Wall;
+import com.gamesbykevin.androidframework.maze.topology.ITopology;
+import com.gamesbykevin.androidframework.maze.topology.SquareTopology;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Random;
 
 /**
@@ -14,8 +13,11 @@ import java.util.Random;
  */
 public class AldousBroder extends Maze
 {
+    //the order the neighbors are checked (west, east, north, south), kept so a seed creates the same maze as it always has
+    private static final int[] ORDER = {Wall.West.ordinal(), Wall.East.ordinal(), Wall.North.ordinal(), Wall.South.ordinal()};
+    
     //track current location
-    private int col, row;
+    private int current;
     
     //keep track of failed count
     private int count = 0;
@@ -32,21 +34,31 @@ public class AldousBroder extends Maze
      */
     private static final float LOCATE_TARGET_PROGRESS_RATIO = .8f;
     
-    //temporary object used to generate maze
-    private List<Room> options;
+    //temporary list of neighbors used to generate maze
+    private int[] options;
     
     public AldousBroder(final int cols, final int rows) throws Exception
     {
-        super(cols, rows);
+        this(new SquareTopology(cols, rows));
+    }
+    
+    /**
+     * Create an Aldous-Broder maze with the shape of the topology
+     * @param topology The shape of the rooms and how they connect
+     * @throws Exception If the minimum required dimensions is not provided
+     */
+    public AldousBroder(final ITopology topology) throws Exception
+    {
+        super(topology);
         
-        //set 4 walls for each room
+        //set all walls for each room
         super.populateRooms();
         
         //the limit will be determined by the size of the maze
-        this.failedAttemptsLimit = ((cols * rows) / 2);
+        this.failedAttemptsLimit = (getGrid().getActiveCount() / 2);
         
-        //create new list
-        this.options = new ArrayList<Room>();
+        //a room has at most 1 neighbor per side
+        this.options = new int[getGrid().getSides()];
     }
     
     @Override
@@ -54,7 +66,6 @@ public class AldousBroder extends Maze
     {
         super.dispose();
         
-        options.clear();
         options = null;
     }
     
@@ -71,24 +82,17 @@ public class AldousBroder extends Maze
             return;
         
         //if we haven't visited any rooms, this is the first time
-        if (!MazeHelper.hasVisited(this))
+        if (!hasStarted())
         {
+            //flag that generation has started
+            markStarted();
+            
             //pick a random location
-            col = random.nextInt(getCols());
-            row = random.nextInt(getRows());
+            current = getGrid().getRandomRoom(random);
         }
         
-        //our temporary room
-        Room room = getRoom(col, row);
-        
-        //check in each direction
-        final Room west = getRoom(col - 1, row);
-        final Room east = getRoom(col + 1, row);
-        final Room north = getRoom(col, row - 1);
-        final Room south = getRoom(col, row + 1);
-        
-        //make sure the list is empty
-        options.clear();
+        //the number of neighbors to choose from
+        int total = 0;
         
         /**
          * If we are close to finishing the maze...
@@ -97,53 +101,33 @@ public class AldousBroder extends Maze
          * Lets target any existing unvisited rooms, to help complete the maze
          */
         if (getProgress().getProgress() >= LOCATE_TARGET_PROGRESS_RATIO || count > failedAttemptsLimit)
-        {
-            if (west != null && !west.hasVisited())
-                options.add(west);
-            if (east != null && !east.hasVisited())
-                options.add(east);
-            if (north != null && !north.hasVisited())
-                options.add(north);
-            if (south != null && !south.hasVisited())
-                options.add(south);
-        }
+            total = getNeighbors(current, options, ORDER, false);
         
         //if we still don't have any options
-        if (options.isEmpty())
+        if (total == 0)
         {
             //increase the count
             count++;
             
             //add any existing neighbor
-            if (west != null)
-                options.add(west);
-            if (east != null)
-                options.add(east);
-            if (north != null)
-                options.add(north);
-            if (south != null)
-                options.add(south);
+            total = getNeighbors(current, options, ORDER);
         }
         
         //now pick a random room
-        Room tmp = options.get(random.nextInt(options.size()));
+        final int room = current;
+        final int tmp = options[random.nextInt(total)];
         
         //assign the new location
-        col = tmp.getCol();
-        row = tmp.getRow();
+        current = tmp;
         
         //if the room has not yet been visited we will join
-        if (!tmp.hasVisited())
+        if (!getGrid().hasVisited(tmp))
         {
             //reset the counter since we found an unvisited room
             count = 0;
             
-            //mark the rooms as visited
-            room.setVisited(true);
-            tmp.setVisited(true);
-            
-            //join the rooms
-            MazeHelper.joinRooms(room, tmp);
+            //join the rooms and mark them as visited
+            join(room, tmp);
         }
         else
         {
@@ -162,47 +146,51 @@ public class AldousBroder extends Maze
     }
     
     /**
-     * Put our location at a room next to an unvisited room
+     * Put our location at a visited room next to an unvisited room.<br>
+     * Every (unvisited room, visited neighbor) pair has the same chance of being picked,<br>
+     * the rooms are checked column by column so a seed creates the same maze as it always has
+     * @param random Object used to make random decisions
      */
     private void placeAtNeighbor(final Random random)
     {
-        //remove any existing objects
-        options.clear();
+        //count the visited neighbors of every unvisited room
+        int total = 0;
         
-        //check all rooms
-        for (int col1 = 0; col1 < getCols(); col1++)
+        for (int col = 0; col < getCols(); col++)
         {
-            for (int row1 = 0; row1 < getRows(); row1++)
+            for (int row = 0; row < getRows(); row++)
             {
-                //if this room has not been visited
-                if (!getRoom(col1, row1).hasVisited())
-                {
-                    //check each direction
-                    final Room west = getRoom(col1 - 1, row1);
-                    final Room east = getRoom(col1 + 1, row1);
-                    final Room north = getRoom(col1, row1 - 1);
-                    final Room south = getRoom(col1, row1 + 1);
-                    
-                    if (west != null && west.hasVisited())
-                        options.add(west);
-                    if (east != null && east.hasVisited())
-                        options.add(east);
-                    if (north != null && north.hasVisited())
-                        options.add(north);
-                    if (south != null && south.hasVisited())
-                        options.add(south);
-                }
+                final int index = getGrid().getIndex(col, row);
+                
+                if (getGrid().hasRoom(index) && !getGrid().hasVisited(index))
+                    total += getNeighbors(index, options, ORDER, true);
             }
         }
         
-        //pick random room
-        final Room room = options.get(random.nextInt(options.size()));
-        
-        //set our new location
-        col = room.getCol();
-        row = room.getRow();
+        //pick one of them at random
+        int pick = random.nextInt(total);
         
-        //remove any existing objects
-        options.clear();
+        //now locate the room we picked
+        for (int col = 0; col < getCols(); col++)
+        {
+            for (int row = 0; row < getRows(); row++)
+            {
+                final int index = getGrid().getIndex(col, row);
+                
+                if (!getGrid().hasRoom(index) || getGrid().hasVisited(index))
+                    continue;
+                
+                final int neighbors = getNeighbors(index, options, ORDER, true);
+                
+                if (pick < neighbors)
+                {
+                    //set our new location
+                    current = options[pick];
+                    return;
+                }
+                
+                pick -= neighbors;
+            }
+        }
     }
 }
\ No newline at end of file
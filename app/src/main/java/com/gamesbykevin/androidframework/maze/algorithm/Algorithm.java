@@ -0,0 +1,141 @@
+package com.gamesbykevin.androidframework.maze.algorithm;
+
+import com.gamesbykevin.androidframework.maze.Maze;
+import com.gamesbykevin.androidframework.maze.topology.ITopology;
+import com.gamesbykevin.androidframework.maze.topology.SquareTopology;
+
+/**
+ * All of the available maze generation algorithms
+ * @author GOD
+ */
+public enum Algorithm
+{
+    AldousBroder, 
+    BinaryTree, 
+    Ellers, 
+    GrowingTree, 
+    HuntKill, 
+    Kruskals, 
+    Prims, 
+    RecursiveBacktracking, 
+    Sidewinder, 
+    Wilsons;
+    
+    /**
+     * Create a new maze that will be generated by this algorithm
+     * @param cols Total columns
+     * @param rows Total rows
+     * @return The new maze, ready to be generated
+     * @throws Exception If the minimum required dimensions is not provided
+     */
+    public Maze create(final int cols, final int rows) throws Exception
+    {
+        switch (this)
+        {
+            case AldousBroder:
+                return new com.gamesbykevin.androidframework.maze.algorithm.AldousBroder(cols, rows);
+                
+            case BinaryTree:
+                return new com.gamesbykevin.androidframework.maze.algorithm.BinaryTree(cols, rows);
+                
+            case Ellers:
+                return new com.gamesbykevin.androidframework.maze.algorithm.Ellers(cols, rows);
+                
+            case GrowingTree:
+                return new com.gamesbykevin.androidframework.maze.algorithm.GrowingTree(cols, rows);
+                
+            case HuntKill:
+                return new com.gamesbykevin.androidframework.maze.algorithm.HuntKill(cols, rows);
+                
+            case Kruskals:
+                return new com.gamesbykevin.androidframework.maze.algorithm.Kruskals(cols, rows);
+                
+            case Prims:
+                return new com.gamesbykevin.androidframework.maze.algorithm.Prims(cols, rows);
+                
+            case RecursiveBacktracking:
+                return new com.gamesbykevin.androidframework.maze.algorithm.RecursiveBacktracking(cols, rows);
+                
+            case Sidewinder:
+                return new com.gamesbykevin.androidframework.maze.algorithm.Sidewinder(cols, rows);
+                
+            case Wilsons:
+                return new com.gamesbykevin.androidframework.maze.algorithm.Wilsons(cols, rows);
+                
+            default:
+                throw new Exception("Algorithm not handled here " + toString());
+        }
+    }
+    
+    /**
+     * Create a new maze with the shape of the topology that will be generated by this algorithm.<br>
+     * BinaryTree, Ellers and Sidewinder carve rows of square rooms, so they only support a square topology
+     * @param topology The shape of the rooms and how they connect
+     * @return The new maze, ready to be generated
+     * @throws Exception If the minimum required dimensions is not provided, or the algorithm does not support the topology
+     */
+    public Maze create(final ITopology topology) throws Exception
+    {
+        switch (this)
+        {
+            case AldousBroder:
+                return new com.gamesbykevin.androidframework.maze.algorithm.AldousBroder(topology);
+                
+            case GrowingTree:
+                return new com.gamesbykevin.androidframework.maze.algorithm.GrowingTree(topology);
+                
+            case HuntKill:
+                return new com.gamesbykevin.androidframework.maze.algorithm.HuntKill(topology);
+                
+            case Kruskals:
+                return new com.gamesbykevin.androidframework.maze.algorithm.Kruskals(topology);
+                
+            case Prims:
+                return new com.gamesbykevin.androidframework.maze.algorithm.Prims(topology);
+                
+            case RecursiveBacktracking:
+                return new com.gamesbykevin.androidframework.maze.algorithm.RecursiveBacktracking(topology);
+                
+            case Wilsons:
+                return new com.gamesbykevin.androidframework.maze.algorithm.Wilsons(topology);
+                
+            default:
+                //a square topology can be created by any algorithm
+                if (topology instanceof SquareTopology)
+                    return create(topology.getCols(), topology.getRows());
+                
+                throw new Exception("Algorithm does not support the topology " + toString());
+        }
+    }
+    
+    /**
+     * Get the algorithm
+     * @param maze The maze we want to check
+     * @return The algorithm that generates the maze, null if the maze is not created by any of the algorithms
+     */
+    public static Algorithm get(final Maze maze)
+    {
+        if (maze instanceof com.gamesbykevin.androidframework.maze.algorithm.AldousBroder)
+            return AldousBroder;
+        if (maze instanceof com.gamesbykevin.androidframework.maze.algorithm.BinaryTree)
+            return BinaryTree;
+        if (maze instanceof com.gamesbykevin.androidframework.maze.algorithm.Ellers)
+            return Ellers;
+        if (maze instanceof com.gamesbykevin.androidframework.maze.algorithm.GrowingTree)
+            return GrowingTree;
+        if (maze instanceof com.gamesbykevin.androidframework.maze.algorithm.HuntKill)
+            return HuntKill;
+        if (maze instanceof com.gamesbykevin.androidframework.maze.algorithm.Kruskals)
+            return Kruskals;
+        if (maze instanceof com.gamesbykevin.androidframework.maze.algorithm.Prims)
+            return Prims;
+        if (maze instanceof com.gamesbykevin.androidframework.maze.algorithm.RecursiveBacktracking)
+            return RecursiveBacktracking;
+        if (maze instanceof com.gamesbykevin.androidframework.maze.algorithm.Sidewinder)
+            return Sidewinder;
+        if (maze instanceof com.gamesbykevin.androidframework.maze.algorithm.Wilsons)
+            return Wilsons;
+        
+        return null;
+    }
+}
\ No newline at end of file
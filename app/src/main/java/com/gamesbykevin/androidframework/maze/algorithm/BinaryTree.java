@@ -62,6 +62,9 @@ public class BinaryTree extends Maze
         if (isGenerated())
             return;
         
+        //flag that generation has started
+        markStarted();
+        
         //if we don't have a direction selected
         if (direction == null)
         {
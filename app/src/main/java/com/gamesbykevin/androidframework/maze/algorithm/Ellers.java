@@ -1,8 +1,6 @@
 package com.gamesbykevin.androidframework.maze.algorithm;
 
 import com.gamesbykevin.androidframework.maze.Maze;
-import com.gamesbykevin.androidframework.maze.MazeHelper;
-import com.gamesbykevin.androidframework.maze.Room;
 
 import java.util.Random;
 
@@ -35,6 +33,9 @@ public class Ellers extends Maze
         if (isGenerated())
             return;
         
+        //flag that generation has started
+        markStarted();
+        
         //randomly choose to join adjacent cells
         if (random.nextBoolean())
         {
@@ -42,7 +43,7 @@ public class Ellers extends Maze
             if (hasBounds(col + 1, row))
             {
                 //create the horizontal path
-                createHorizontalPath(getRoom(col, row), getRoom(col + 1, row));
+                createHorizontalPath(getGrid().getIndex(col, row), getGrid().getIndex(col + 1, row));
             }
         }
 
@@ -81,7 +82,7 @@ public class Ellers extends Maze
                 if (random.nextBoolean())
                 {
                     //create the vertical path
-                    createVerticalPath(getRoom(col, row), getRoom(col, row + 1));
+                    createVerticalPath(getGrid().getIndex(col, row), getGrid().getIndex(col, row + 1));
                 }
             }
 
@@ -89,10 +90,10 @@ public class Ellers extends Maze
             for (col = 0; col < getCols(); col++)
             {
                 //if we don't have a matching set below, lets create it now
-                if (!hasSet(getRoom(col, row), row + 1))
+                if (!hasSet(getGrid().getSet(getGrid().getIndex(col, row)), row + 1))
                 {
                     //create the vertical path
-                    createVerticalPath(getRoom(col, row), getRoom(col, row + 1));
+                    createVerticalPath(getGrid().getIndex(col, row), getGrid().getIndex(col, row + 1));
                 }
             }
         }
@@ -102,7 +103,7 @@ public class Ellers extends Maze
             for (col = 0; col < getCols() - 1; col++)
             {
                 //create the path
-                createHorizontalPath(getRoom(col, row), getRoom(col + 1, row));
+                createHorizontalPath(getGrid().getIndex(col, row), getGrid().getIndex(col + 1, row));
             }
         }
     }
@@ -110,48 +111,48 @@ public class Ellers extends Maze
     /**
      * Create a horizontal path joining the 2 rooms.<br>
      * If the rooms are already part of the same set, nothing will happen here
-     * @param roomWest Room to the west
-     * @param roomEast The neighbor room to the east
+     * @param roomWest The index of the room to the west
+     * @param roomEast The index of the neighbor room to the east
      */
-    private void createHorizontalPath(final Room roomWest, final Room roomEast) throws Exception
+    private void createHorizontalPath(final int roomWest, final int roomEast)
     {
         //only check if the neighbor is part of a different set
-        if (!roomEast.hasId(roomWest))
+        if (getGrid().getSet(roomEast) != getGrid().getSet(roomWest))
         {
             //make the neighbor part of the same set
-            roomEast.setId(roomWest);
+            getGrid().setSet(roomEast, getGrid().getSet(roomWest));
 
             //now remove the walls between the neighbors
-            MazeHelper.joinRooms(roomWest, roomEast);
+            getGrid().join(roomWest, roomEast);
         }
     }
     
     /**
      * Create a vertical path joining the 2 rooms.<br>
-     * @param roomNorth Room to the north
-     * @param roomSouth The neighbor room to the south
+     * @param roomNorth The index of the room to the north
+     * @param roomSouth The index of the neighbor room to the south
      */
-    private void createVerticalPath(final Room roomNorth, final Room roomSouth) throws Exception
+    private void createVerticalPath(final int roomNorth, final int roomSouth)
     {
         //make the neighbor part of the same set
-        roomSouth.setId(roomNorth);
+        getGrid().setSet(roomSouth, getGrid().getSet(roomNorth));
 
         //now remove the walls between the neighbors
-        MazeHelper.joinRooms(roomSouth, roomNorth);
+        getGrid().join(roomSouth, roomNorth);
     }
     
     /**
      * Do we have the set?
-     * @param room Room containing the unique set (id)
+     * @param set The label of the set
      * @param row The row we want to check
      * @return true if at least 1 room in the specified row has a matching set
      */
-    private boolean hasSet(final Room room, final int row)
+    private boolean hasSet(final int set, final int row)
     {
         for (int column = 0; column < getCols(); column++)
         {
             //if the set matches, return true
-            if (room.hasId(getRoom(column, row)))
+            if (getGrid().getSet(getGrid().getIndex(column, row)) == set)
                 return true;
         }
         
@@ -0,0 +1,299 @@
+package com.gamesbykevin.androidframework.maze.algorithm;
+
+import com.gamesbykevin.androidframework.maze.Grid;
+import com.gamesbykevin.androidframework.maze.Room.Wall;
+import com.gamesbykevin.androidframework.resources.Disposable;
+
+import java.util.Random;
+
+/**
+ * Ellers maze generation algorithm streaming 1 row at a time.<br>
+ * Only the set labels of the current row are kept, so the maze can be of unbounded height.<br>
+ * Each finished row is handed to a listener, memory and time per row are both proportional to the columns.
+ * @author GOD
+ */
+public class EllersStream implements Disposable
+{
+    /**
+     * Receive each row once it is finished
+     */
+    public interface RowListener
+    {
+        /**
+         * Called once the row is finished
+         * @param row The row, starting at 0
+         * @param walls The walls of each room in the row, see {@link Wall#getBit()}.<br>
+         * The array is reused for the next row, so copy it if it needs to be kept
+         * @throws Exception 
+         */
+        public void onRow(final int row, final byte[] walls) throws Exception;
+    }
+    
+    //the number of columns in each row
+    private final int cols;
+    
+    //the object receiving each row
+    private RowListener listener;
+    
+    //the set label of each room in the current and next row, labels range from 0 to (cols - 1)
+    private int[] current, next;
+    
+    //union-find parents, labels of the next row range from 0 to (cols * 2) - 1
+    private int[] parents;
+    
+    //the number of rooms of each set not yet checked while making vertical connections
+    private int[] remaining;
+    
+    //has the set made a vertical connection
+    private boolean[] connected;
+    
+    //used to compact the labels of the next row
+    private int[] labels;
+    
+    //does each room in the current row have a passage to the room above
+    private boolean[] north;
+    
+    //the walls of the current row
+    private byte[] walls;
+    
+    //the row we are currently generating
+    private int row = 0;
+    
+    //has the last row been generated
+    private boolean finished = false;
+    
+    /**
+     * Create a new stream
+     * @param cols The number of columns in each row
+     * @param listener The object receiving each finished row
+     * @throws Exception If the minimum required dimensions is not provided
+     */
+    public EllersStream(final int cols, final RowListener listener) throws Exception
+    {
+        if (cols < 2)
+            throw new Exception("The maze must contain at least 2 columns");
+        
+        this.cols = cols;
+        this.listener = listener;
+        
+        this.current = new int[cols];
+        this.next = new int[cols];
+        this.parents = new int[cols * 2];
+        this.remaining = new int[cols * 2];
+        this.connected = new boolean[cols * 2];
+        this.labels = new int[cols * 2];
+        this.north = new boolean[cols];
+        this.walls = new byte[cols];
+        
+        //every room in the first row starts in a set of its own
+        for (int col = 0; col < cols; col++)
+        {
+            this.current[col] = col;
+        }
+    }
+    
+    @Override
+    public void dispose()
+    {
+        this.listener = null;
+        this.current = null;
+        this.next = null;
+        this.parents = null;
+        this.remaining = null;
+        this.connected = null;
+        this.labels = null;
+        this.north = null;
+        this.walls = null;
+    }
+    
+    /**
+     * Get the columns
+     * @return The number of columns in each row
+     */
+    public int getCols()
+    {
+        return this.cols;
+    }
+    
+    /**
+     * Get the row
+     * @return The number of rows generated so far
+     */
+    public int getRow()
+    {
+        return this.row;
+    }
+    
+    /**
+     * Has the last row been generated?
+     * @return true if {@link #finish(Random)} has been called, false otherwise
+     */
+    public boolean isFinished()
+    {
+        return this.finished;
+    }
+    
+    /**
+     * Generate the next row, at least 1 room of each set will continue to the row below
+     * @param random Object used to make random decisions
+     * @throws Exception If the last row has already been generated
+     */
+    public void next(final Random random) throws Exception
+    {
+        startRow();
+        
+        //randomly choose to join adjacent rooms of different sets
+        for (int col = 0; col < cols - 1; col++)
+        {
+            if (find(current[col]) != find(current[col + 1]) && random.nextBoolean())
+                joinEast(col);
+        }
+        
+        //count the rooms in each set
+        for (int col = 0; col < cols; col++)
+        {
+            current[col] = find(current[col]);
+            remaining[current[col]]++;
+        }
+        
+        //make the vertical connections
+        for (int col = 0; col < cols; col++)
+        {
+            final int set = current[col];
+            
+            remaining[set]--;
+            
+            //randomly connect, but make sure each set has at least 1 vertical connection
+            if (random.nextBoolean() || (remaining[set] == 0 && !connected[set]))
+            {
+                connected[set] = true;
+                next[col] = set;
+                north[col] = true;
+                walls[col] &= ~Wall.South.getBit();
+            }
+            else
+            {
+                //the room below starts in a new set of its own
+                next[col] = cols + col;
+                north[col] = false;
+            }
+        }
+        
+        //compact the labels of the next row back to the range 0 to (cols - 1)
+        for (int col = 0; col < cols; col++)
+        {
+            labels[next[col]] = -1;
+        }
+        
+        int count = 0;
+        
+        for (int col = 0; col < cols; col++)
+        {
+            if (labels[next[col]] < 0)
+                labels[next[col]] = count++;
+            
+            next[col] = labels[next[col]];
+        }
+        
+        //the next row becomes the current row
+        final int[] tmp = current;
+        current = next;
+        next = tmp;
+        
+        finishRow();
+    }
+    
+    /**
+     * Generate the last row, joining every adjacent room of a different set
+     * @param random Object used to make random decisions
+     * @throws Exception If the last row has already been generated
+     */
+    public void finish(final Random random) throws Exception
+    {
+        startRow();
+        
+        for (int col = 0; col < cols - 1; col++)
+        {
+            if (find(current[col]) != find(current[col + 1]))
+                joinEast(col);
+        }
+        
+        //no more rows will be generated
+        finished = true;
+        
+        finishRow();
+    }
+    
+    /**
+     * Prepare the walls and sets of the current row
+     * @throws Exception If the last row has already been generated
+     */
+    private void startRow() throws Exception
+    {
+        if (isFinished())
+            throw new Exception("The last row has already been generated");
+        
+        for (int col = 0; col < cols; col++)
+        {
+            //every room has all walls, except the passage to the room above
+            walls[col] = (byte)((north[col]) ? Grid.WALLS_ALL & ~Wall.North.getBit() : Grid.WALLS_ALL);
+        }
+        
+        for (int set = 0; set < parents.length; set++)
+        {
+            parents[set] = set;
+            remaining[set] = 0;
+            connected[set] = false;
+        }
+    }
+    
+    /**
+     * Hand the finished row to the listener and move to the next row
+     * @throws Exception 
+     */
+    private void finishRow() throws Exception
+    {
+        listener.onRow(row, walls);
+        
+        row++;
+    }
+    
+    /**
+     * Join the room with the room to the east, merging their sets
+     * @param col The column of the room
+     */
+    private void joinEast(final int col)
+    {
+        parents[find(current[col + 1])] = find(current[col]);
+        
+        walls[col] &= ~Wall.East.getBit();
+        walls[col + 1] &= ~Wall.West.getBit();
+    }
+    
+    /**
+     * Find the set
+     * @param set The set label
+     * @return The label representing the merged set
+     */
+    private int find(final int set)
+    {
+        int root = set;
+        
+        while (parents[root] != root)
+        {
+            root = parents[root];
+        }
+        
+        //compress the path for the next search
+        int tmp = set;
+        
+        while (parents[tmp] != root)
+        {
+            final int parent = parents[tmp];
+            parents[tmp] = root;
+            tmp = parent;
+        }
+        
+        return root;
+    }
+}
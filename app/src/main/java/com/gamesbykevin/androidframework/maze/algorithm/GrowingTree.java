@@ -1,11 +1,10 @@
 package com.gamesbykevin.androidframework.maze.algorithm;
 
 import com.gamesbykevin.androidframework.maze.Maze;
-import com.gamesbykevin.androidframework.maze.MazeHelper;
-import com.gamesbykevin.androidframework.maze.Room;
+import com.gamesbykevin.androidframework.maze.Room.Wall;
+import com.gamesbykevin.androidframework.maze.topology.ITopology;
+import com.gamesbykevin.androidframework.maze.topology.SquareTopology;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Random;
 
 /**
@@ -14,19 +13,38 @@ import java.util.Random;
  */
 public class GrowingTree extends Maze
 {
-    //temporary list of optional rooms
-    private List<Room> options, tmp;
+    //the order the neighbors are checked (east, west, north, south), kept so a seed creates the same maze as it always has
+    private static final int[] ORDER = {Wall.East.ordinal(), Wall.West.ordinal(), Wall.North.ordinal(), Wall.South.ordinal()};
+    
+    //list of rooms (index) that may still have unvisited neighbors, the newest added is last
+    private int[] options;
+    
+    //the number of rooms in our list
+    private int size = 0;
+    
+    //temporary list of neighbors
+    private int[] neighbors;
     
     public GrowingTree(final int cols, final int rows) throws Exception
     {
-        super(cols, rows);
+        this(new SquareTopology(cols, rows));
+    }
+    
+    /**
+     * Create a Growing Tree maze with the shape of the topology
+     * @param topology The shape of the rooms and how they connect
+     * @throws Exception If the minimum required dimensions is not provided
+     */
+    public GrowingTree(final ITopology topology) throws Exception
+    {
+        super(topology);
         
         //fill all walls
         super.populateRooms();
         
-        //create new lists
-        this.options = new ArrayList<Room>();
-        this.tmp = new ArrayList<Room>();
+        //each room will be added at most once
+        this.options = new int[getGrid().getSize()];
+        this.neighbors = new int[getGrid().getSides()];
     }
     
     @Override
@@ -34,11 +52,8 @@ public class GrowingTree extends Maze
     {
         super.dispose();
         
-        options.clear();
         options = null;
-        
-        tmp.clear();
-        tmp = null;
+        neighbors = null;
     }
     
     /**
@@ -52,14 +67,13 @@ public class GrowingTree extends Maze
         if (isGenerated())
             return;
         
-        if(!MazeHelper.hasVisited(this))
+        if (!hasStarted())
         {
-            //pick random location
-            final int col = random.nextInt(getCols());
-            final int row = random.nextInt(getRows());
+            //flag that generation has started
+            markStarted();
             
             //add random room to list
-            options.add(getRoom(col, row));
+            options[size++] = getGrid().getRandomRoom(random);
         }
         
         //random index from our list of cells
@@ -70,55 +84,36 @@ public class GrowingTree extends Maze
          */
         if (random.nextBoolean())
         {
-            index = random.nextInt(options.size());
+            index = random.nextInt(size);
         }
         else
         {
-            index = options.size() - 1;
+            index = size - 1;
         }
         
         //get that random room
-        final Room room = options.get(index);
+        final int room = options[index];
         
-        //check neighbors
-        final Room east = getRoom(room.getCol() + 1, room.getRow());
-        final Room west = getRoom(room.getCol() - 1, room.getRow());
-        final Room north = getRoom(room.getCol(), room.getRow() - 1);
-        final Room south = getRoom(room.getCol(), room.getRow() + 1);
-        
-        //clear the list
-        tmp.clear();
-        
-        //add any rooms that have not been visited to our list
-        if (east != null && !east.hasVisited())
-            tmp.add(east);
-        if (west != null && !west.hasVisited())
-            tmp.add(west);
-        if (north != null && !north.hasVisited())
-            tmp.add(north);
-        if (south != null && !south.hasVisited())
-            tmp.add(south);
+        //find the neighbors that have not been visited
+        final int count = getNeighbors(room, neighbors, ORDER, false);
         
         //if there are no unvisited neighbors
-        if (tmp.isEmpty())
+        if (count == 0)
         {
-            //remove it from the list
-            options.remove(index);
+            //remove it from the list, keeping the order so the newest stays last
+            System.arraycopy(options, index + 1, options, index, size - index - 1);
+            size--;
         }
         else
         {
             //pick random room from our list
-            final Room randomRoom = tmp.get(random.nextInt(tmp.size()));
-            
-            //join the rooms
-            MazeHelper.joinRooms(room, randomRoom);
+            final int randomRoom = neighbors[random.nextInt(count)];
             
-            //mark the rooms as visited
-            room.setVisited(true);
-            randomRoom.setVisited(true);
+            //join the rooms and mark them as visited
+            join(room, randomRoom);
             
             //add the random room to the list
-            options.add(randomRoom);
+            options[size++] = randomRoom;
         }
         
         //update the progress
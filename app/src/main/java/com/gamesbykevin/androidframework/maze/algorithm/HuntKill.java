@@ -1,37 +1,98 @@
 package com.gamesbykevin.androidframework.maze.algorithm;
 
+import com.gamesbykevin.androidframework.maze.IndexSet;
 import com.gamesbykevin.androidframework.maze.Maze;
-import com.gamesbykevin.androidframework.maze.MazeHelper;
-import com.gamesbykevin.androidframework.maze.Room;
+import com.gamesbykevin.androidframework.maze.Room.Wall;
+import com.gamesbykevin.androidframework.maze.topology.ITopology;
+import com.gamesbykevin.androidframework.maze.topology.SquareTopology;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Random;
 
 /**
- * Hunt Kill maze generation algorithm
+ * Hunt Kill maze generation algorithm.<br>
+ * By default the hunt scans the rows in order, resuming at the first row not fully visited.<br>
+ * Optionally the rooms bordering the maze can be tracked, so each hunt is constant time.
  * @author GOD
  */
 public class HuntKill extends Maze
 {
+    //the order the neighbors are checked (east, west, north, south), kept so a seed creates the same maze as it always has
+    private static final int[] ORDER = {Wall.East.ordinal(), Wall.West.ordinal(), Wall.North.ordinal(), Wall.South.ordinal()};
+    
     //current location
-    private int currentCol, currentRow;
+    private int current;
     
     //temporary list of optional rooms
-    private List<Room> options;
+    private int[] options;
     
     //have we hit a dead end
     private boolean deadend = false;
     
+    //every row before this row has been fully visited
+    private int cursor = 0;
+    
+    //flag for each row that has been fully visited
+    private long[] rowsVisited;
+    
+    //the unvisited rooms next to a visited room, only used when tracking the frontier
+    private IndexSet frontier;
+    
+    /**
+     * Create a Hunt Kill maze that hunts by scanning the rows in order
+     * @param cols Total columns
+     * @param rows Total rows
+     * @throws Exception If the minimum required dimensions is not provided
+     */
     public HuntKill(final int cols, final int rows) throws Exception
     {
-        super(cols, rows);
+        this(cols, rows, false);
+    }
+    
+    /**
+     * Create a Hunt Kill maze
+     * @param cols Total columns
+     * @param rows Total rows
+     * @param frontier true to track the rooms next to the maze and hunt a random one of them,<br>
+     * false to hunt the first room (scanning the rows in order) next to the maze
+     * @throws Exception If the minimum required dimensions is not provided
+     */
+    public HuntKill(final int cols, final int rows, final boolean frontier) throws Exception
+    {
+        this(new SquareTopology(cols, rows), frontier);
+    }
+    
+    /**
+     * Create a Hunt Kill maze with the shape of the topology, that hunts by scanning the rows in order
+     * @param topology The shape of the rooms and how they connect
+     * @throws Exception If the minimum required dimensions is not provided
+     */
+    public HuntKill(final ITopology topology) throws Exception
+    {
+        this(topology, false);
+    }
+    
+    /**
+     * Create a Hunt Kill maze with the shape of the topology
+     * @param topology The shape of the rooms and how they connect
+     * @param frontier true to track the rooms next to the maze and hunt a random one of them,<br>
+     * false to hunt the first room (scanning the rows in order) next to the maze
+     * @throws Exception If the minimum required dimensions is not provided
+     */
+    public HuntKill(final ITopology topology, final boolean frontier) throws Exception
+    {
+        super(topology);
         
         //fill all walls
         super.populateRooms();
         
-        //create a new list
-        this.options = new ArrayList<Room>();
+        //a room has at most 1 neighbor per side
+        this.options = new int[getGrid().getSides()];
+        
+        //1 bit per row
+        this.rowsVisited = new long[(getRows() + 63) / 64];
+        
+        if (frontier)
+            this.frontier = new IndexSet(getGrid().getSize());
     }        
     
     @Override
@@ -39,8 +100,14 @@ public class HuntKill extends Maze
     {
         super.dispose();
         
-        options.clear();
+        if (frontier != null)
+        {
+            frontier.dispose();
+            frontier = null;
+        }
+        
         options = null;
+        rowsVisited = null;
     }
     
     /**
@@ -54,96 +121,49 @@ public class HuntKill extends Maze
         if (isGenerated())
             return;
         
-        //clear list of objects
-        options.clear();
-                        
         //we are just starting to create the maze
-        if (!MazeHelper.hasVisited(this))
+        if (!hasStarted())
         {
+            //flag that generation has started
+            markStarted();
+            
             //set the random location
-            currentCol = random.nextInt(getCols());
-            currentRow = random.nextInt(getRows());
+            current = getGrid().getRandomRoom(random);
             
             //mark this room as visited
-            getRoom(currentCol, currentRow).setVisited(true);
+            visit(current);
         }
         else if (deadend)
         {
-            //start hunting for the next available room in this particular order
-            for (int row = 0; row < getRows(); row++)
-            {
-                for (int col = 0; col < getCols(); col++)
-                {
-                    //get the current room
-                    final Room room = getRoom(col, row);
-                    
-                    //we are only interested in rooms that haven't been visited
-                    if (room.hasVisited())
-                        continue;
-                    
-                    //clear the list of objects
-                    options.clear();
-                    
-                    //check for visited cells
-                    final Room east = getRoom(col + 1, row);
-                    final Room west = getRoom(col - 1, row);
-                    final Room north = getRoom(col, row - 1);
-                    final Room south = getRoom(col, row + 1);
-
-                    //make sure room exists and is already visited
-                    if (east != null && east.hasVisited())
-                        options.add(east);
-                    if (west != null && west.hasVisited())
-                        options.add(west);
-                    if (north != null && north.hasVisited())
-                        options.add(north);
-                    if (south != null && south.hasVisited())
-                        options.add(south);
-
-                    //we only want to join a unvisited room to a visited room
-                    if (!options.isEmpty())
-                    {
-                        //assign new location
-                        this.currentCol = col;
-                        this.currentRow = row;
-                        
-                        //join the rooms
-                        joinRooms(random);
-                        
-                        //now re-assign new location
-                        this.currentCol = col;
-                        this.currentRow = row;
-
-                        //no longer in a dead end
-                        deadend = false;
-
-                        //exit loop
-                        return;
-                    }
-                }
-            }
+            //find the next available room
+            final int index = (frontier != null) ? frontier.getRandom(random) : hunt();
+            
+            //check for visited neighbors
+            final int count = getNeighbors(index, options, ORDER, true);
+            
+            //assign new location
+            this.current = index;
+            
+            //join the rooms
+            joinRooms(random, count);
+            
+            //now re-assign new location
+            this.current = index;
+            
+            //no longer in a dead end
+            deadend = false;
+            
+            //exit
+            return;
         }
         
-        //the rooms in each direction
-        final Room east = getRoom(currentCol + 1, currentRow);
-        final Room west = getRoom(currentCol - 1, currentRow);
-        final Room north = getRoom(currentCol, currentRow - 1);
-        final Room south = getRoom(currentCol, currentRow + 1);
-        
-        //if the rooms exist and have not visited, add it to the list
-        if (east != null && !east.hasVisited())
-            options.add(east);
-        if (west != null && !west.hasVisited())
-            options.add(west);
-        if (north != null && !north.hasVisited())
-            options.add(north);
-        if (south != null && !south.hasVisited())
-            options.add(south);
+        //find the neighbors that have not been visited
+        final int count = getNeighbors(current, options, ORDER, false);
         
         //if we have options to choose from
-        if (!options.isEmpty())
+        if (count > 0)
         {
-            joinRooms(random);
+            joinRooms(random, count);
         }
         else
         {
@@ -152,30 +172,95 @@ public class HuntKill extends Maze
         }
     }
     
+    /**
+     * Hunt for the first room (scanning the rows in order) that has not been visited and is next to a visited room.<br>
+     * Rows that are fully visited are skipped, and the rows before the cursor are never scanned again.
+     * @return The index of the room
+     * @throws Exception If no room was found
+     */
+    private int hunt() throws Exception
+    {
+        for (int row = cursor; row < getRows(); row++)
+        {
+            //skip the rows we know are fully visited
+            if ((rowsVisited[row >> 6] & (1L << row)) != 0)
+                continue;
+            
+            //does the row have any room not visited
+            boolean unvisited = false;
+            
+            for (int index = row * getCols(); index < (row + 1) * getCols(); index++)
+            {
+                //we are only interested in rooms that haven't been visited
+                if (!getGrid().hasRoom(index) || getGrid().hasVisited(index))
+                    continue;
+                
+                unvisited = true;
+                
+                //we only want to join a unvisited room to a visited room
+                if (getNeighbors(index, options, ORDER, true) > 0)
+                    return index;
+            }
+            
+            //if every room in the row is visited, we never have to check the row again
+            if (!unvisited)
+            {
+                rowsVisited[row >> 6] |= (1L << row);
+                
+                //move the cursor past the fully visited rows
+                while (cursor < getRows() && (rowsVisited[cursor >> 6] & (1L << cursor)) != 0)
+                {
+                    cursor++;
+                }
+            }
+        }
+        
+        throw new Exception("No room was found to hunt");
+    }
+    
+    /**
+     * Mark the room as visited, and update the frontier if we are tracking it
+     * @param index The index of the room
+     */
+    private void visit(final int index)
+    {
+        getGrid().setVisited(index, true);
+        
+        if (frontier != null)
+        {
+            //the room is now part of the maze
+            frontier.remove(index);
+            
+            //any neighbor not visited now borders the maze
+            final int count = getGrid().getNeighbors(index, options, false);
+            
+            for (int i = 0; i < count; i++)
+            {
+                frontier.add(options[i]);
+            }
+        }
+    }
+    
     /**
      * Join the current room with one in our optional list.<br>
      * In addition we will mark the rooms as visited and the new room we merge will become the current location
      * @param random Object used to make random decisions
-     * @throws Exception 
+     * @param count The number of rooms in our optional list
      */
-    private void joinRooms(final Random random) throws Exception
+    private void joinRooms(final Random random, final int count)
     {
-        //get the current room
-        Room room = getRoom(currentCol, currentRow);
-
         //get a random neighbor room
-        Room neighbor = options.get(random.nextInt(options.size()));
-
-        //mark both as visited
-        room.setVisited(true);
-        neighbor.setVisited(true);
-
+        final int neighbor = options[random.nextInt(count)];
+        
         //join the rooms to create the path
-        MazeHelper.joinRooms(room, neighbor);
-
+        getGrid().join(current, neighbor);
+        
+        //mark both as visited
+        visit(current);
+        visit(neighbor);
+        
         //now set the new position
-        currentCol = neighbor.getCol();
-        currentRow = neighbor.getRow();
+        current = neighbor;
         
         //update progress
         updateProgress();
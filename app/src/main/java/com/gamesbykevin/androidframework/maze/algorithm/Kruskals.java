@@ -1,306 +1,160 @@
 package com.gamesbykevin.androidframework.maze.algorithm;
 
+import com.gamesbykevin.androidframework.maze.DisjointSet;
 import com.gamesbykevin.androidframework.maze.Maze;
-import com.gamesbykevin.androidframework.maze.MazeHelper;
-import com.gamesbykevin.androidframework.maze.Room;
-import com.gamesbykevin.androidframework.maze.Room.Wall;
+import com.gamesbykevin.androidframework.maze.topology.ITopology;
+import com.gamesbykevin.androidframework.maze.topology.SquareTopology;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Random;
-import java.util.UUID;
 
 /**
- * Kruskal's maze generation algorithm
+ * Kruskal's maze generation algorithm.<br>
+ * Every wall between 2 rooms is an edge, the edges are visited in random order<br>
+ * and the rooms are joined whenever they are not yet part of the same set.
  * @author GOD
  */
 public class Kruskals extends Maze
 {
-    public Kruskals(final int cols, final int rows) throws Exception
-    {
-        super(cols, rows);
-        
-        //set 4 walls for each room
-        super.populateRooms();
-    }
+    //the sets each room belongs to
+    private DisjointSet sets;
     
     /**
-     * Create our maze
-     * @param random Object used to make random decisions
-     * @throws Exception
+     * The edges, each one is stored as (index * 2) for the east wall or (index * 2) + 1 for the south wall.<br>
+     * For other topologies each edge is stored as (index * sides) + side, from the room with the lower index
      */
-    @Override
-    public void update(final Random random) throws Exception
+    private int[] edges;
+    
+    //the number of edges not yet picked
+    private int remaining;
+    
+    public Kruskals(final int cols, final int rows) throws Exception
     {
-        //if generated no need to continue
-        if (isGenerated())
-            return;
-        
-        //get the room with the lowest weight
-        final Room room = getLowestWeight(random);
-        
-        //create a list of optional directions to randomly choose from
-        List<Room.Wall> directions = new ArrayList<Room.Wall>();
-
-        //now check if not part of a set for each neighbor (north, south, east, west)
-        final Room east = getRoom(room.getCol() + 1, room.getRow());
-        final Room west = getRoom(room.getCol() - 1, room.getRow());
-        final Room north = getRoom(room.getCol(), room.getRow() - 1);
-        final Room south = getRoom(room.getCol(), room.getRow() + 1);
-
-        //if the room exists and is not part of the same set
-        if (east != null && !east.hasId(room))
-            directions.add(Wall.East);
-        if (west != null && !west.hasId(room))
-            directions.add(Wall.West);
-        if (north != null && !north.hasId(room))
-            directions.add(Wall.North);
-        if (south != null && !south.hasId(room))
-            directions.add(Wall.South);
-
-        //now randomly join a neighboring room
-        joinRooms(room, directions.get(random.nextInt(directions.size())));
-        
-        //update the progress
-        super.getProgress().setCount(((getCols() * getRows()) - getUniqueSetCount()) + 1);
+        this(new SquareTopology(cols, rows));
     }
     
     /**
-     * Get the unique set count.<br>
-     * As we generate our maze this number will decrease until we reach 1 set
-     * @return The total number of unique sets
+     * Create a Kruskal's maze with the shape of the topology
+     * @param topology The shape of the rooms and how they connect
+     * @throws Exception If the minimum required dimensions is not provided
      */
-    private int getUniqueSetCount()
+    public Kruskals(final ITopology topology) throws Exception
     {
-        //our list of unique sets
-        List<UUID> sets = new ArrayList<UUID>();
+        super(topology);
+        
+        //set all walls for each room
+        super.populateRooms();
+        
+        //every room starts in a set of its own
+        this.sets = new DisjointSet(getGrid().getSize());
         
-        //check all rooms
-        for (int col = 0; col < getCols(); col++)
+        if (getGrid().isSquare())
         {
-            for (int row = 0; row < getRows(); row++)
+            final int cols = getCols();
+            final int rows = getRows();
+            
+            //create the list of edges between neighboring rooms
+            this.edges = new int[((cols - 1) * rows) + (cols * (rows - 1))];
+            
+            for (int row = 0; row < rows; row++)
             {
-                final Room room = getRoom(col, row);
-                
-                //do we already have a matching set
-                boolean match = false;
-                
-                //check each set to see if we have a match
-                for (int index = 0; index < sets.size(); index++)
+                for (int col = 0; col < cols; col++)
                 {
-                    //if we already have this in our list
-                    if (room.hasId(sets.get(index)))
-                    {
-                        //flag match
-                        match = true;
-                        
-                        //no need to check the rest
-                        break;
-                    }
+                    final int index = getGrid().getIndex(col, row);
+                    
+                    //edge to the east neighbor
+                    if (col < cols - 1)
+                        edges[remaining++] = (index * 2);
+                    
+                    //edge to the south neighbor
+                    if (row < rows - 1)
+                        edges[remaining++] = (index * 2) + 1;
                 }
-                
-                //if we didn't find it, add to the list
-                if (!match)
-                    sets.add(room.getId());
             }
         }
-        
-        //return the number of sets that we found
-        return sets.size();
-    }
-    
-    /**
-     * Get the room with the lowest weight.
-     * @param random Object used to make random decisions
-     * @return The room with the fewest amount of matching sets, if no rooms are available return null
-     */
-    private Room getLowestWeight(final Random random)
-    {
-        //the weight to beat
-        int lowestWeight = getCols() * getRows();
-        
-        //the list of the 
-        List<Room> rooms = new ArrayList<Room>();
-        
-        //check all rooms
-        for (int col = 0; col < getCols(); col++)
+        else
         {
-            for (int row = 0; row < getRows(); row++)
+            final int sides = getGrid().getSides();
+            
+            //each edge is shared by 2 rooms, so we only add it from the room with the lower index
+            this.edges = new int[getGrid().getSize() * sides];
+            
+            for (int index = 0; index < getGrid().getSize(); index++)
             {
-                //get the current room
-                final Room room = getRoom(col, row);
+                if (!getGrid().hasRoom(index))
+                    continue;
                 
-                //count the total number of sets
-                final int count = getSetCount(room);
-                
-                //if we have a new low weight
-                if (count < lowestWeight)
-                {
-                    //we also want to make sure there are new neighbors we can connect to
-                    if (getNeighborCount(room) > 0)
-                    {
-                        //remove all existing rooms
-                        rooms.clear();
-
-                        //add the new champion
-                        rooms.add(room);
-
-                        //set the new score to beat
-                        lowestWeight = count;
-                    }
-                }
-                else if (count == lowestWeight)
+                for (int side = 0; side < sides; side++)
                 {
-                    //we also want to make sure there are new neighbors we can connect to
-                    if (getNeighborCount(room) > 0)
-                    {
-                        //add the new champion
-                        rooms.add(room);
-                    }
+                    if (getGrid().getNeighbor(index, side) > index)
+                        edges[remaining++] = (index * sides) + side;
                 }
             }
         }
-        
-        //return a random room from our list
-        return rooms.get(random.nextInt(rooms.size()));
     }
     
-    /**
-     * Get the neighbor count
-     * @param room The room containing the set (id) we want to check
-     * @return The total number of neighbors (north, south, east, west) that have a different set (id)
-     */
-    private int getNeighborCount(final Room room)
-    {
-        //keep track of the count
-        int count = 0;
-        
-        //now check if not part of a set for each neighbor (north, south, east, west)
-        final Room east = getRoom(room.getCol() + 1, room.getRow());
-        final Room west = getRoom(room.getCol() - 1, room.getRow());
-        final Room north = getRoom(room.getCol(), room.getRow() - 1);
-        final Room south = getRoom(room.getCol(), room.getRow() + 1);
-        
-        //if the room exists and is not part of the same set
-        if (east != null && !east.hasId(room))
-            count++;
-        if (west != null && !west.hasId(room))
-            count++;
-        if (north != null && !north.hasId(room))
-            count++;
-        if (south != null && !south.hasId(room))
-            count++;
-        
-        return count;
-    }
-    
-    /**
-     * Get the set count
-     * @param room The room containing the set (id) that we want to check
-     * @return The total number of rooms that have the matching set
-     */
-    private int getSetCount(final Room room)
+    @Override
+    public void dispose()
     {
-        //count the number of matching sets
-        int count = 0;
-        
-        //check all rooms
-        for (int col = 0; col < getCols(); col++)
-        {
-            for (int row = 0; row < getRows(); row++)
-            {
-                //if the id's match
-                if (getRoom(col, row).hasId(room))
-                    count++;
-            }
-        }
+        super.dispose();
         
-        //return our result
-        return count++;
-    }
-    
-    /**
-     * Join rooms
-     * @param room The room we want to join
-     * @param direction The direction of the neighbor we want to join
-     * @throws Exception 
-     */
-    private void joinRooms(final Room room, final Wall direction) throws Exception
-    {
-        switch (direction)
+        if (sets != null)
         {
-            case East:
-                //remove the appropriate walls
-                room.removeWall(Wall.East);
-                getRoom(room.getCol() + 1, room.getRow()).removeWall(Wall.West);
-                break;
-                
-            case West:
-                //remove the appropriate walls
-                room.removeWall(Wall.West);
-                getRoom(room.getCol() - 1, room.getRow()).removeWall(Wall.East);
-                break;
-                
-            case North:
-                //remove the appropriate walls
-                room.removeWall(Wall.North);
-                getRoom(room.getCol(), room.getRow() - 1).removeWall(Wall.South);
-                break;
-                
-            case South:
-                //remove the appropriate walls
-                room.removeWall(Wall.South);
-                getRoom(room.getCol(), room.getRow() + 1).removeWall(Wall.North);
-                break;
-                
-            default:
-                throw new Exception("Direction not handled here " + direction.toString());
+            sets.dispose();
+            sets = null;
         }
         
-        //now update the neighboring rooms that we can access to have the same set
-        joinSets(room);
+        edges = null;
     }
     
     /**
-     * Assign the rooms we can access with the same set.<br>
-     * Starting at the specified source we will check all neighbors that we can access and assign the room
-     * @param source The room containing the set we want to assign
+     * Create our maze
+     * @param random Object used to make random decisions
+     * @throws Exception
      */
-    private void joinSets(final Room source)
+    @Override
+    public void update(final Random random) throws Exception
     {
-        //mark all rooms as not visited
-        MazeHelper.setVisitedAll(this, false);
-        
-        //now we want to check all rooms that border the current room and assign the same set
-        List<Room> rooms = new ArrayList<Room>();
+        //if generated no need to continue
+        if (isGenerated())
+            return;
         
-        //add the initial room
-        rooms.add(source);
+        //flag that generation has started
+        markStarted();
         
-        //continue to check while rooms exist
-        while (!rooms.isEmpty())
+        //continue until we join 2 rooms or run out of edges
+        while (remaining > 0)
         {
-            //get the first room
-            final Room tmp = rooms.get(0);
-            
-            //assign the matching id
-            tmp.setId(source);
+            //pick a random edge that hasn't been picked yet and move it to the end (Fisher-Yates)
+            final int pick = random.nextInt(remaining);
+            final int edge = edges[pick];
+            edges[pick] = edges[remaining - 1];
+            edges[remaining - 1] = edge;
+            remaining--;
             
-            //mark as visited
-            tmp.setVisited(true);
+            //the room and its neighbor
+            final int index;
+            final int neighbor;
             
-            //if there is no wall and the neighboring room has not been visited yet
-            if (!tmp.hasWall(Wall.East) && !getRoom(tmp.getCol() + 1, tmp.getRow()).hasVisited())
-                rooms.add(getRoom(tmp.getCol() + 1, tmp.getRow()));
-            if (!tmp.hasWall(Wall.West) && !getRoom(tmp.getCol() - 1, tmp.getRow()).hasVisited())
-                rooms.add(getRoom(tmp.getCol() - 1, tmp.getRow()));
-            if (!tmp.hasWall(Wall.North) && !getRoom(tmp.getCol(), tmp.getRow() - 1).hasVisited())
-                rooms.add(getRoom(tmp.getCol(), tmp.getRow() - 1));
-            if (!tmp.hasWall(Wall.South) && !getRoom(tmp.getCol(), tmp.getRow() + 1).hasVisited())
-                rooms.add(getRoom(tmp.getCol(), tmp.getRow() + 1));
+            if (getGrid().isSquare())
+            {
+                index = edge / 2;
+                neighbor = ((edge & 1) == 0) ? index + 1 : index + getCols();
+            }
+            else
+            {
+                index = edge / getGrid().getSides();
+                neighbor = getGrid().getNeighbor(index, edge % getGrid().getSides());
+            }
             
-            //remove room from list
-            rooms.remove(0);
+            //if the rooms are not part of the same set join them
+            if (sets.union(index, neighbor))
+            {
+                getGrid().join(index, neighbor);
+                break;
+            }
         }
+        
+        //update the progress
+        super.getProgress().setCount((getGrid().getSize() - sets.getCount()) + 1);
     }
 }
\ No newline at end of file
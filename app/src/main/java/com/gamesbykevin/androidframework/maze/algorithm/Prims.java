@@ -1,31 +1,51 @@
 package com.gamesbykevin.androidframework.maze.algorithm;
 
+import com.gamesbykevin.androidframework.maze.IndexSet;
 import com.gamesbykevin.androidframework.maze.Maze;
-import com.gamesbykevin.androidframework.maze.MazeHelper;
-import com.gamesbykevin.androidframework.maze.Room;
+import com.gamesbykevin.androidframework.maze.Room.Wall;
+import com.gamesbykevin.androidframework.maze.topology.ITopology;
+import com.gamesbykevin.androidframework.maze.topology.SquareTopology;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Random;
 
 /**
- * Prim's maze generation algorithm
+ * Prim's maze generation algorithm.<br>
+ * The frontier is an {@link IndexSet}, so adding, checking and removing a random room is constant time.<br>
+ * Removing a room moves the last room of the set into its place, so the rooms are picked in a different order<br>
+ * than the original list (which kept its order), and a seed does not create the same maze it did with the list.
  * @author GOD
  */
 public class Prims extends Maze
 {
-    //list of rooms to check
-    private List<Room> options;
+    //the order the neighbors are checked (east, west, north, south), kept so a seed creates the same maze as it always has
+    private static final int[] ORDER = {Wall.East.ordinal(), Wall.West.ordinal(), Wall.North.ordinal(), Wall.South.ordinal()};
+    
+    //the rooms (index) to check
+    private IndexSet options;
+    
+    //temporary list of neighbors
+    private int[] neighbors;
     
     public Prims(final int cols, final int rows) throws Exception
     {
-        super(cols, rows);
+        this(new SquareTopology(cols, rows));
+    }
+    
+    /**
+     * Create a Prim's maze with the shape of the topology
+     * @param topology The shape of the rooms and how they connect
+     * @throws Exception If the minimum required dimensions is not provided
+     */
+    public Prims(final ITopology topology) throws Exception
+    {
+        super(topology);
         
-        //set 4 walls for each room
+        //set all walls for each room
         super.populateRooms();
         
-        //create a new list of optional rooms
-        this.options = new ArrayList<Room>();
+        //create our frontier
+        this.options = new IndexSet(getGrid().getSize());
+        this.neighbors = new int[getGrid().getSides()];
     }
     
     @Override
@@ -33,8 +53,13 @@ public class Prims extends Maze
     {
         super.dispose();
         
-        options.clear();
-        options = null;
+        if (options != null)
+        {
+            options.dispose();
+            options = null;
+        }
+        
+        neighbors = null;
     }
     
     /**
@@ -49,78 +74,48 @@ public class Prims extends Maze
         if (isGenerated())
             return;
         
-        //our temporary room
-        Room room;
+        //have we already started creating the maze
+        final boolean started = hasStarted();
         
-        //if we don't have any visited rooms yet, we are just starting
-        if (!MazeHelper.hasVisited(this))
+        //if we haven't started, this is the first step
+        if (!started)
         {
-            //pick a random location
-            final int col = random.nextInt(getCols());
-            final int row = random.nextInt(getRows());
+            //flag that generation has started
+            markStarted();
             
-            //add this random room to the list of options
-            options.add(getRoom(col, row));
+            //add a random room to the list of options
+            options.add(getGrid().getRandomRoom(random));
         }
         
-        //pick random position in our list
-        final int index = random.nextInt(options.size());
-        
         //pick random room from options
-        room = options.get(index);
+        final int room = options.getRandom(random);
         
         //if we have started
-        if (MazeHelper.hasVisited(this))
+        if (started)
         {
-            //check if any neighbors can be joined to the room
-            final Room east = getRoom(room.getCol() + 1, room.getRow());
-            final Room west = getRoom(room.getCol() - 1, room.getRow());
-            final Room north = getRoom(room.getCol(), room.getRow() - 1);
-            final Room south = getRoom(room.getCol(), room.getRow() + 1);
-            
-            //list of choices to move to
-            final List<Room> choices = new ArrayList<Room>();
-            
-            //we only want to add the room that exists and is already visited to join with
-            if (east != null && east.hasVisited())
-                choices.add(east);
-            if (west != null && west.hasVisited())
-                choices.add(west);
-            if (north != null && north.hasVisited())
-                choices.add(north);
-            if (south != null && south.hasVisited())
-                choices.add(south);
-            
-            //the other room
-            final Room other = choices.get(random.nextInt(choices.size()));
+            //check which visited neighbors can be joined to the room
+            final int count = getNeighbors(room, neighbors, ORDER, true);
             
             //join the rooms
-            MazeHelper.joinRooms(room, other);
+            join(room, neighbors[random.nextInt(count)]);
         }
         
         //mark the room as visited
-        room.setVisited(true);
+        getGrid().setVisited(room, true);
         
         //check if any neighbors can be added to the list
-        final Room east = getRoom(room.getCol() + 1, room.getRow());
-        final Room west = getRoom(room.getCol() - 1, room.getRow());
-        final Room north = getRoom(room.getCol(), room.getRow() - 1);
-        final Room south = getRoom(room.getCol(), room.getRow() + 1);
+        final int count = getNeighbors(room, neighbors, ORDER, false);
         
-        //add any optional directions that haven't been visited and don't already exist in the list
-        if (east != null && !east.hasVisited() && !options.contains(east))
-            options.add(east);
-        if (west != null && !west.hasVisited() && !options.contains(west))
-            options.add(west);
-        if (north != null && !north.hasVisited() && !options.contains(north))
-            options.add(north);
-        if (south != null && !south.hasVisited() && !options.contains(south))
-            options.add(south);
+        //add any optional directions that haven't been visited, the set ignores rooms it already has
+        for (int i = 0; i < count; i++)
+        {
+            options.add(neighbors[i]);
+        }
         
         //increase the progress
         super.getProgress().increase();
         
         //remove from the list
-        options.remove(index);
+        options.remove(room);
     }
 }
\ No newline at end of file
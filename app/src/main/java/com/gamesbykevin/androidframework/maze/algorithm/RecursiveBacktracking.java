@@ -1,12 +1,10 @@
 package com.gamesbykevin.androidframework.maze.algorithm;
 
-import com.gamesbykevin.androidframework.base.Cell;
 import com.gamesbykevin.androidframework.maze.Maze;
-import com.gamesbykevin.androidframework.maze.MazeHelper;
 import com.gamesbykevin.androidframework.maze.Room.Wall;
+import com.gamesbykevin.androidframework.maze.topology.ITopology;
+import com.gamesbykevin.androidframework.maze.topology.SquareTopology;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Random;
 
 /**
@@ -15,21 +13,41 @@ import java.util.Random;
  */
 public class RecursiveBacktracking extends Maze
 {
+    //the order the neighbors are checked (west, east, north, south), kept so a seed creates the same maze as it always has
+    private static final int[] ORDER = {Wall.West.ordinal(), Wall.East.ordinal(), Wall.North.ordinal(), Wall.South.ordinal()};
+    
     //our current location
-    private int col = 0, row = 0;
+    private int current = 0;
+    
+    //the rooms (index) visited, used to help generate the maze
+    private int[] steps;
     
-    //list of places visited, used to help generate the maze
-    private List<Cell> steps;
+    //the number of steps
+    private int size = 0;
+    
+    //temporary list of neighbors
+    private int[] neighbors;
     
     public RecursiveBacktracking(final int cols, final int rows) throws Exception
     {
-        super(cols, rows);
+        this(new SquareTopology(cols, rows));
+    }
+    
+    /**
+     * Create a Recursive Backtracking maze with the shape of the topology
+     * @param topology The shape of the rooms and how they connect
+     * @throws Exception If the minimum required dimensions is not provided
+     */
+    public RecursiveBacktracking(final ITopology topology) throws Exception
+    {
+        super(topology);
         
-        //set 4 walls for each room
+        //set all walls for each room
         super.populateRooms();
         
-        //create new list, to track the steps
-        this.steps = new ArrayList<Cell>();
+        //each room will be a step at most once
+        this.steps = new int[getGrid().getSize()];
+        this.neighbors = new int[getGrid().getSides()];
     }
     
     @Override
@@ -37,8 +55,8 @@ public class RecursiveBacktracking extends Maze
     {
         super.dispose();
         
-        steps.clear();
         steps = null;
+        neighbors = null;
     }
     
     /**
@@ -54,109 +72,47 @@ public class RecursiveBacktracking extends Maze
             return;
         
         //if we haven't visited 1 room, we are just starting
-        if (!MazeHelper.hasVisited(this))
+        if (!hasStarted())
         {
+            //flag that generation has started
+            markStarted();
+            
             //store the current location as the start location
-            col = super.getStartCol();
-            row = super.getStartRow();
+            current = getGrid().getIndex(super.getStartCol(), super.getStartRow());
+            
+            //if the start location is not part of the maze, start at a random room
+            if (!getGrid().hasRoom(current))
+                current = getGrid().getRandomRoom(random);
             
             //add the current location as part of the steps
-            steps.add(new Cell(col, row));
+            steps[size++] = current;
         }
         
-        //create empty list of optional walls
-        List<Wall> options = new ArrayList<Wall>();
-
-        //check the west, make sure we are inbounds and have not visited our neighbor
-        if (hasBounds(col - 1, row) && !getRoom(col - 1, row).hasVisited())
-            options.add(Wall.West);
-
-        //check the east, make sure we are inbounds and have not visited our neighbor
-        if (hasBounds(col + 1, row) && !getRoom(col + 1, row).hasVisited())
-            options.add(Wall.East);
-
-        //check the north, make sure we are inbounds and have not visited our neighbor
-        if (hasBounds(col, row - 1) && !getRoom(col, row - 1).hasVisited())
-            options.add(Wall.North);
-
-        //check the south, make sure we are inbounds and have not visited our neighbor
-        if (hasBounds(col, row + 1) && !getRoom(col, row + 1).hasVisited())
-            options.add(Wall.South);
-
+        //check for neighbors we have not visited
+        final int count = getNeighbors(current, neighbors, ORDER, false);
+        
         //if there are no options we have to back track
-        if (options.isEmpty())
+        if (count == 0)
         {
             //the previous location was a dead end, so remove it
-            steps.remove(steps.size() - 1);
+            size--;
             
             //now get the location before that
-            col = (int)steps.get(steps.size() - 1).getCol();
-            row = (int)steps.get(steps.size() - 1).getRow();
+            current = steps[size - 1];
         }
         else
         {
-            //pick a random wall from our options
-            final Wall wall = options.get(random.nextInt(options.size()));
+            //pick a random neighbor
+            final int neighbor = neighbors[random.nextInt(count)];
             
-            //remove the wall from our current
-            getRoom(col, row).removeWall(wall);
-
-            //mark this as visited
-            getRoom(col, row).setVisited(true);
-
-            //remove the wall from our neighbor
-            switch (wall)
-            {
-                case North:
-                    //now set the new location
-                    row = row - 1;
-
-                    //remove the wall
-                    getRoom(col, row).removeWall(Wall.South);
-
-                    //mark this as visited
-                    getRoom(col, row).setVisited(true);
-                    break;
-
-                case South:
-                    //now set the new location
-                    row = row + 1;
-
-                    //remove the wall
-                    getRoom(col, row).removeWall(Wall.North);
-
-                    //mark this as visited
-                    getRoom(col, row).setVisited(true);
-                    break;
-
-                case West:
-                    //now set the new location
-                    col = col - 1;
-
-                    //remove the wall
-                    getRoom(col, row).removeWall(Wall.East);
-
-                    //mark this as visited
-                    getRoom(col, row).setVisited(true);
-                    break;
-
-                case East:
-                    //now set the new location
-                    col = col + 1;
-
-                    //remove the wall
-                    getRoom(col, row).removeWall(Wall.West);
-
-                    //mark this as visited
-                    getRoom(col, row).setVisited(true);
-                    break;
-
-                default:
-                    throw new Exception("The wall was not found here " + wall.toString());
-            }
+            //remove the walls between and mark both as visited
+            join(current, neighbor);
+            
+            //now set the new location
+            current = neighbor;
             
             //add the current location as part of the steps
-            steps.add(new Cell(col, row));
+            steps[size++] = current;
         }
         
         //update the progress
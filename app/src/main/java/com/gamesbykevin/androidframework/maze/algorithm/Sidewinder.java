@@ -52,8 +52,11 @@ public class Sidewinder extends Maze
             return;
         
         //if we are just starting with the maze
-        if (!MazeHelper.hasVisited(this))
+        if (!hasStarted())
         {
+            //flag that generation has started
+            markStarted();
+            
             this.currentCol = 0;
             this.currentRow = 0;
         }
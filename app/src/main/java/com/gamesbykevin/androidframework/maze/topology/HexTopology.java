@@ -0,0 +1,184 @@
+package com.gamesbykevin.androidframework.maze.topology;
+
+/**
+ * Hexagon cells with 6 sides.<br>
+ * The hexagons point up and every odd row is shifted right by half a cell.<br>
+ * The sides are north west, south east, north east, south west, west and east, so each pair of sides is opposite.
+ * @author GOD
+ */
+public class HexTopology implements ITopology
+{
+    /**
+     * The sides of a hexagon
+     */
+    public static final int NORTH_WEST = 0, SOUTH_EAST = 1, NORTH_EAST = 2, SOUTH_WEST = 3, WEST = 4, EAST = 5;
+    
+    //the dimensions of the layout
+    private final int cols, rows;
+    
+    /**
+     * Create a hexagon topology
+     * @param cols Total columns
+     * @param rows Total rows
+     */
+    public HexTopology(final int cols, final int rows)
+    {
+        this.cols = cols;
+        this.rows = rows;
+    }
+    
+    @Override
+    public int getCols()
+    {
+        return this.cols;
+    }
+    
+    @Override
+    public int getRows()
+    {
+        return this.rows;
+    }
+    
+    @Override
+    public int getSize()
+    {
+        return (getCols() * getRows());
+    }
+    
+    @Override
+    public int getSides()
+    {
+        return 6;
+    }
+    
+    @Override
+    public boolean hasCell(final int cell)
+    {
+        return (cell >= 0 && cell < getSize());
+    }
+    
+    @Override
+    public int getActiveCount()
+    {
+        return getSize();
+    }
+    
+    @Override
+    public int getNeighbor(final int cell, final int side)
+    {
+        final int col = cell % cols;
+        final int row = cell / cols;
+        
+        //odd rows are shifted right, so their diagonal neighbors are 1 column further
+        final int shift = row & 1;
+        
+        switch (side)
+        {
+            case NORTH_WEST:
+                return getCell(col - 1 + shift, row - 1);
+            
+            case NORTH_EAST:
+                return getCell(col + shift, row - 1);
+            
+            case SOUTH_WEST:
+                return getCell(col - 1 + shift, row + 1);
+            
+            case SOUTH_EAST:
+                return getCell(col + shift, row + 1);
+            
+            case WEST:
+                return getCell(col - 1, row);
+            
+            default:
+                return getCell(col + 1, row);
+        }
+    }
+    
+    @Override
+    public int getDistance(final int cell1, final int cell2)
+    {
+        final int row1 = cell1 / cols, row2 = cell2 / cols;
+        
+        //convert to axial coordinates, where odd rows are shifted right
+        final int q1 = (cell1 % cols) - ((row1 - (row1 & 1)) / 2);
+        final int q2 = (cell2 % cols) - ((row2 - (row2 & 1)) / 2);
+        
+        final int dq = q1 - q2, dr = row1 - row2;
+        
+        return (Math.abs(dq) + Math.abs(dr) + Math.abs(dq + dr)) / 2;
+    }
+    
+    @Override
+    public void getSide(final int cell, final int side, final float[] points, final int offset)
+    {
+        final int row = cell / cols;
+        
+        //each hexagon is 1 cell wide and tall, the rows overlap by a quarter and odd rows are shifted right by half
+        final float x = (cell % cols) + ((row & 1) * 0.5f) + 0.5f;
+        final float y = (row * 0.75f) + 0.5f;
+        
+        switch (side)
+        {
+            case NORTH_WEST:
+                setPoints(points, offset, x - 0.5f, y - 0.25f, x, y - 0.5f);
+                break;
+            
+            case NORTH_EAST:
+                setPoints(points, offset, x, y - 0.5f, x + 0.5f, y - 0.25f);
+                break;
+            
+            case EAST:
+                setPoints(points, offset, x + 0.5f, y - 0.25f, x + 0.5f, y + 0.25f);
+                break;
+            
+            case SOUTH_EAST:
+                setPoints(points, offset, x + 0.5f, y + 0.25f, x, y + 0.5f);
+                break;
+            
+            case SOUTH_WEST:
+                setPoints(points, offset, x, y + 0.5f, x - 0.5f, y + 0.25f);
+                break;
+            
+            default:
+                setPoints(points, offset, x - 0.5f, y + 0.25f, x - 0.5f, y - 0.25f);
+                break;
+        }
+    }
+    
+    /**
+     * Assign the end points of a side
+     * @param points Array where the end points are written
+     * @param offset The position in the array of the first value
+     * @param x1 The x-coordinate of the start
+     * @param y1 The y-coordinate of the start
+     * @param x2 The x-coordinate of the end
+     * @param y2 The y-coordinate of the end
+     */
+    private static void setPoints(final float[] points, final int offset, final float x1, final float y1, final float x2, final float y2)
+    {
+        points[offset] = x1;
+        points[offset + 1] = y1;
+        points[offset + 2] = x2;
+        points[offset + 3] = y2;
+    }
+    
+    @Override
+    public int getOpposite(final int cell, final int side)
+    {
+        return (side ^ 1);
+    }
+    
+    /**
+     * Get the cell
+     * @param col Column
+     * @param row Row
+     * @return The id of the cell at the location, -1 if out of bounds
+     */
+    private int getCell(final int col, final int row)
+    {
+        if (col < 0 || col >= cols || row < 0 || row >= rows)
+            return -1;
+        
+        return (row * cols) + col;
+    }
+}
\ No newline at end of file
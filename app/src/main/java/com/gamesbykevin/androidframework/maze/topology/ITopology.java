@@ -0,0 +1,82 @@
+package com.gamesbykevin.androidframework.maze.topology;
+
+/**
+ * The shape of the cells in a maze and how they connect.<br>
+ * Each cell is identified by an integer id from 0 to (size - 1), laid out row by row,<br>
+ * and each side of a cell is identified by an integer from 0 to (sides - 1).
+ * @author GOD
+ */
+public interface ITopology
+{
+    /**
+     * Get the columns
+     * @return The number of columns in the layout
+     */
+    public int getCols();
+    
+    /**
+     * Get the rows
+     * @return The number of rows in the layout
+     */
+    public int getRows();
+    
+    /**
+     * Get the size
+     * @return The number of cell ids (columns * rows), including cells that are not part of the maze
+     */
+    public int getSize();
+    
+    /**
+     * Get the sides
+     * @return The number of sides of each cell
+     */
+    public int getSides();
+    
+    /**
+     * Do we have the cell?
+     * @param cell The id of the cell
+     * @return true if the cell is part of the maze, false otherwise
+     */
+    public boolean hasCell(final int cell);
+    
+    /**
+     * Get the active count
+     * @return The number of cells that are part of the maze
+     */
+    public int getActiveCount();
+    
+    /**
+     * Get the neighbor
+     * @param cell The id of the cell
+     * @param side The side of the cell
+     * @return The id of the cell on the other side, -1 if there is no cell (or it is not part of the maze)
+     */
+    public int getNeighbor(final int cell, final int side);
+    
+    /**
+     * Get the opposite side
+     * @param cell The id of the cell
+     * @param side The side of the cell
+     * @return The side of the neighbor that leads back to the cell
+     */
+    public int getOpposite(final int cell, final int side);
+    
+    /**
+     * Get the distance.<br>
+     * The distance ignores the walls and the cells that are not part of the maze, so it is never more than the length of any path between the cells
+     * @param cell1 The id of the first cell
+     * @param cell2 The id of the second cell
+     * @return The fewest number of steps from one cell to the other if every cell was connected
+     */
+    public int getDistance(final int cell1, final int cell2);
+    
+    /**
+     * Get the side.<br>
+     * The layout is measured in cells, so the canvas is scaled by the dimension of a cell when the side is drawn
+     * @param cell The id of the cell
+     * @param side The side of the cell
+     * @param points Array where the end points of the side (x1, y1, x2, y2) are written
+     * @param offset The position in the array of the first value
+     */
+    public void getSide(final int cell, final int side, final float[] points, final int offset);
+}
\ No newline at end of file
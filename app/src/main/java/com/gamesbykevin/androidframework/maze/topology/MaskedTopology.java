@@ -0,0 +1,208 @@
+package com.gamesbykevin.androidframework.maze.topology;
+
+import android.graphics.Bitmap;
+import android.graphics.Color;
+
+/**
+ * A topology where only some cells are part of the maze.<br>
+ * The mask is a bit set with 1 bit per cell, or it can be read from an image where every pixel that is not transparent is a cell.<br>
+ * The cells in the mask have to be connected, otherwise the maze could never be completed.
+ * @author GOD
+ */
+public class MaskedTopology implements ITopology
+{
+    //the shape of the cells
+    private final ITopology topology;
+    
+    //the cells that are part of the maze, 1 bit per cell
+    private final long[] mask;
+    
+    //the number of cells that are part of the maze
+    private final int active;
+    
+    /**
+     * Create a masked topology
+     * @param topology The shape of the cells
+     * @param mask 1 bit per cell (bit (cell % 64) of mask[cell / 64]), set if the cell is part of the maze
+     * @throws Exception If the mask is too small, has no cells, or the cells are not connected
+     */
+    public MaskedTopology(final ITopology topology, final long[] mask) throws Exception
+    {
+        if (mask.length < (topology.getSize() + 63) / 64)
+            throw new Exception("The mask needs 1 bit for each of the " + topology.getSize() + " cells");
+        
+        this.topology = topology;
+        this.mask = mask.clone();
+        
+        //count the cells in the mask
+        int count = 0;
+        
+        for (int cell = 0; cell < topology.getSize(); cell++)
+        {
+            if (hasCell(cell))
+                count++;
+        }
+        
+        this.active = count;
+        
+        if (this.active == 0)
+            throw new Exception("The mask does not contain any cells");
+        if (!isConnected())
+            throw new Exception("The cells in the mask are not connected");
+    }
+    
+    /**
+     * Create a masked topology from an image.<br>
+     * The image is scaled to the columns and rows, each pixel that is not transparent is a cell
+     * @param topology The shape of the cells
+     * @param image The image of the mask
+     * @throws Exception If the image has no cells, or the cells are not connected
+     */
+    public MaskedTopology(final ITopology topology, final Bitmap image) throws Exception
+    {
+        this(topology, createMask(topology, image));
+    }
+    
+    /**
+     * Create the mask from the image
+     * @param topology The shape of the cells
+     * @param image The image of the mask
+     * @return 1 bit per cell, set if the pixel is not transparent
+     */
+    private static long[] createMask(final ITopology topology, final Bitmap image)
+    {
+        final long[] mask = new long[(topology.getSize() + 63) / 64];
+        
+        for (int row = 0; row < topology.getRows(); row++)
+        {
+            for (int col = 0; col < topology.getCols(); col++)
+            {
+                //sample the pixel in the center of the cell
+                final int x = (int)(((col + 0.5) * image.getWidth()) / topology.getCols());
+                final int y = (int)(((row + 0.5) * image.getHeight()) / topology.getRows());
+                
+                if (Color.alpha(image.getPixel(x, y)) != 0)
+                {
+                    final int cell = (row * topology.getCols()) + col;
+                    mask[cell >> 6] |= (1L << cell);
+                }
+            }
+        }
+        
+        return mask;
+    }
+    
+    /**
+     * Are all cells in the mask connected?
+     * @return true if every cell can be reached from any other cell, false otherwise
+     */
+    private boolean isConnected()
+    {
+        final long[] reached = new long[mask.length];
+        final int[] queue = new int[active];
+        
+        int head = 0, tail = 0;
+        
+        //start from the first cell in the mask
+        for (int cell = 0; cell < getSize(); cell++)
+        {
+            if (hasCell(cell))
+            {
+                reached[cell >> 6] |= (1L << cell);
+                queue[tail++] = cell;
+                break;
+            }
+        }
+        
+        while (head < tail)
+        {
+            final int cell = queue[head++];
+            
+            for (int side = 0; side < getSides(); side++)
+            {
+                final int neighbor = getNeighbor(cell, side);
+                
+                if (neighbor < 0 || (reached[neighbor >> 6] & (1L << neighbor)) != 0)
+                    continue;
+                
+                reached[neighbor >> 6] |= (1L << neighbor);
+                queue[tail++] = neighbor;
+            }
+        }
+        
+        return (tail == active);
+    }
+    
+    /**
+     * Get the topology
+     * @return The shape of the cells before the mask is applied
+     */
+    public ITopology getTopology()
+    {
+        return this.topology;
+    }
+    
+    @Override
+    public int getCols()
+    {
+        return topology.getCols();
+    }
+    
+    @Override
+    public int getRows()
+    {
+        return topology.getRows();
+    }
+    
+    @Override
+    public int getSize()
+    {
+        return topology.getSize();
+    }
+    
+    @Override
+    public int getSides()
+    {
+        return topology.getSides();
+    }
+    
+    @Override
+    public boolean hasCell(final int cell)
+    {
+        return (cell >= 0 && cell < getSize() && (mask[cell >> 6] & (1L << cell)) != 0);
+    }
+    
+    @Override
+    public int getActiveCount()
+    {
+        return this.active;
+    }
+    
+    @Override
+    public int getNeighbor(final int cell, final int side)
+    {
+        final int neighbor = topology.getNeighbor(cell, side);
+        
+        //cells outside of the mask are not neighbors
+        return (hasCell(neighbor)) ? neighbor : -1;
+    }
+    
+    @Override
+    public int getDistance(final int cell1, final int cell2)
+    {
+        //removing cells can only make a path longer
+        return topology.getDistance(cell1, cell2);
+    }
+    
+    @Override
+    public void getSide(final int cell, final int side, final float[] points, final int offset)
+    {
+        topology.getSide(cell, side, points, offset);
+    }
+    
+    @Override
+    public int getOpposite(final int cell, final int side)
+    {
+        return topology.getOpposite(cell, side);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,114 @@
+package com.gamesbykevin.androidframework.maze.topology;
+
+import com.gamesbykevin.androidframework.maze.Room.Wall;
+
+/**
+ * Square cells with 4 sides.<br>
+ * The sides are the ordinal of {@link Wall} (north, south, west, east),<br>
+ * so a grid with this topology uses the same wall bits as a regular maze.
+ * @author GOD
+ */
+public class SquareTopology implements ITopology
+{
+    //the dimensions of the layout
+    private final int cols, rows;
+    
+    /**
+     * Create a square topology
+     * @param cols Total columns
+     * @param rows Total rows
+     */
+    public SquareTopology(final int cols, final int rows)
+    {
+        this.cols = cols;
+        this.rows = rows;
+    }
+    
+    @Override
+    public int getCols()
+    {
+        return this.cols;
+    }
+    
+    @Override
+    public int getRows()
+    {
+        return this.rows;
+    }
+    
+    @Override
+    public int getSize()
+    {
+        return (getCols() * getRows());
+    }
+    
+    @Override
+    public int getSides()
+    {
+        return 4;
+    }
+    
+    @Override
+    public boolean hasCell(final int cell)
+    {
+        return (cell >= 0 && cell < getSize());
+    }
+    
+    @Override
+    public int getActiveCount()
+    {
+        return getSize();
+    }
+    
+    @Override
+    public int getNeighbor(final int cell, final int side)
+    {
+        final int col = cell % cols;
+        
+        switch (side)
+        {
+            //north
+            case 0:
+                return (cell >= cols) ? cell - cols : -1;
+            
+            //south
+            case 1:
+                return (cell + cols < getSize()) ? cell + cols : -1;
+            
+            //west
+            case 2:
+                return (col > 0) ? cell - 1 : -1;
+            
+            //east
+            default:
+                return (col < cols - 1) ? cell + 1 : -1;
+        }
+    }
+    
+    @Override
+    public int getDistance(final int cell1, final int cell2)
+    {
+        //the Manhattan distance, each step changes the column or the row by 1
+        return Math.abs((cell1 % cols) - (cell2 % cols)) + Math.abs((cell1 / cols) - (cell2 / cols));
+    }
+    
+    @Override
+    public void getSide(final int cell, final int side, final float[] points, final int offset)
+    {
+        final int col = cell % cols;
+        final int row = cell / cols;
+        
+        //north and west start at the top left corner, south and east end at the bottom right corner
+        points[offset] = (side == 3) ? col + 1 : col;
+        points[offset + 1] = (side == 1) ? row + 1 : row;
+        points[offset + 2] = (side == 2) ? col : col + 1;
+        points[offset + 3] = (side == 0) ? row : row + 1;
+    }
+    
+    @Override
+    public int getOpposite(final int cell, final int side)
+    {
+        //north/south and west/east are pairs
+        return (side ^ 1);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,151 @@
+package com.gamesbykevin.androidframework.maze.topology;
+
+/**
+ * Triangle cells with 3 sides.<br>
+ * The triangles alternate between pointing up and down, a cell points up when (column + row) is even.<br>
+ * The sides are west, east and the base, which is below a triangle pointing up and above a triangle pointing down.
+ * @author GOD
+ */
+public class TriangleTopology implements ITopology
+{
+    /**
+     * The sides of a triangle
+     */
+    public static final int WEST = 0, EAST = 1, BASE = 2;
+    
+    //the dimensions of the layout
+    private final int cols, rows;
+    
+    /**
+     * Create a triangle topology
+     * @param cols Total columns
+     * @param rows Total rows
+     */
+    public TriangleTopology(final int cols, final int rows)
+    {
+        this.cols = cols;
+        this.rows = rows;
+    }
+    
+    @Override
+    public int getCols()
+    {
+        return this.cols;
+    }
+    
+    @Override
+    public int getRows()
+    {
+        return this.rows;
+    }
+    
+    @Override
+    public int getSize()
+    {
+        return (getCols() * getRows());
+    }
+    
+    @Override
+    public int getSides()
+    {
+        return 3;
+    }
+    
+    @Override
+    public boolean hasCell(final int cell)
+    {
+        return (cell >= 0 && cell < getSize());
+    }
+    
+    @Override
+    public int getActiveCount()
+    {
+        return getSize();
+    }
+    
+    /**
+     * Does the triangle point up?
+     * @param cell The id of the cell
+     * @return true if the triangle points up, false if it points down
+     */
+    public boolean isUp(final int cell)
+    {
+        return ((cell % cols) + (cell / cols)) % 2 == 0;
+    }
+    
+    @Override
+    public int getNeighbor(final int cell, final int side)
+    {
+        final int col = cell % cols;
+        
+        switch (side)
+        {
+            case WEST:
+                return (col > 0) ? cell - 1 : -1;
+            
+            case EAST:
+                return (col < cols - 1) ? cell + 1 : -1;
+            
+            default:
+                if (isUp(cell))
+                    return (cell + cols < getSize()) ? cell + cols : -1;
+                
+                return (cell >= cols) ? cell - cols : -1;
+        }
+    }
+    
+    @Override
+    public int getDistance(final int cell1, final int cell2)
+    {
+        final int cols = Math.abs((cell1 % this.cols) - (cell2 % this.cols));
+        final int rows = Math.abs((cell1 / this.cols) - (cell2 / this.cols));
+        
+        //each step changes the column or the row by 1, and after crossing a base the next base leads back,
+        //so a step to the side is needed between each row
+        return Math.max(cols + rows, (2 * rows) - 1);
+    }
+    
+    @Override
+    public void getSide(final int cell, final int side, final float[] points, final int offset)
+    {
+        final int row = cell / cols;
+        
+        //each triangle is 1 cell wide and tall, neighboring triangles overlap by half
+        final float left = (cell % cols) * 0.5f;
+        
+        //the base is below a triangle pointing up and above a triangle pointing down
+        final float base = (isUp(cell)) ? row + 1 : row;
+        final float apex = (isUp(cell)) ? row : row + 1;
+        
+        switch (side)
+        {
+            case WEST:
+                points[offset] = left;
+                points[offset + 1] = base;
+                points[offset + 2] = left + 0.5f;
+                points[offset + 3] = apex;
+                break;
+            
+            case EAST:
+                points[offset] = left + 1;
+                points[offset + 1] = base;
+                points[offset + 2] = left + 0.5f;
+                points[offset + 3] = apex;
+                break;
+            
+            default:
+                points[offset] = left;
+                points[offset + 1] = base;
+                points[offset + 2] = left + 1;
+                points[offset + 3] = base;
+                break;
+        }
+    }
+    
+    @Override
+    public int getOpposite(final int cell, final int side)
+    {
+        //the base of a triangle always touches the base of its neighbor
+        return (side == BASE) ? BASE : (side ^ 1);
+    }
+}
\ No newline at end of file
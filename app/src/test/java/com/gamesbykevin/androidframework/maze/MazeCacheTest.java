@@ -0,0 +1,167 @@
+package com.gamesbykevin.androidframework.maze;
+
+import com.gamesbykevin.androidframework.maze.algorithm.Algorithm;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.Random;
+
+/**
+ * Check a maze from memory, from the directory and freshly generated are all the same
+ * @author GOD
+ */
+public class MazeCacheTest
+{
+    //the dimensions of each maze
+    private static final int COLS = 17, ROWS = 11;
+    
+    //the seed used to generate each maze
+    private static final long SEED = 42L;
+    
+    //enough memory for every maze
+    private static final long CAPACITY = 1024 * 1024;
+    
+    //the directory where the mazes are stored
+    private File directory;
+    
+    @Before
+    public void setUp() throws Exception
+    {
+        directory = File.createTempFile("mazes", "");
+        
+        if (!directory.delete() || !directory.mkdirs())
+            throw new Exception("The directory can't be created " + directory.getPath());
+    }
+    
+    @After
+    public void tearDown()
+    {
+        for (File file : directory.listFiles())
+        {
+            file.delete();
+        }
+        
+        directory.delete();
+    }
+    
+    @Test
+    public void testHits() throws Exception
+    {
+        for (Algorithm algorithm : Algorithm.values())
+        {
+            final MazeCache cache = new MazeCache(CAPACITY, directory);
+            
+            final Maze generated = cache.get(algorithm, COLS, ROWS, SEED);
+            final Maze memory = cache.get(algorithm, COLS, ROWS, SEED);
+            
+            Assert.assertEquals(1, cache.getMisses());
+            Assert.assertEquals(1, cache.getHits());
+            
+            //a new cache only has the directory
+            final MazeCache other = new MazeCache(CAPACITY, directory);
+            final Maze disk = other.get(algorithm, COLS, ROWS, SEED);
+            
+            Assert.assertEquals(1, other.getDiskHits());
+            Assert.assertEquals(0, other.getMisses());
+            
+            assertSame(generated, memory);
+            assertSame(generated, disk);
+            
+            //the walls are the same as generating the maze without the cache
+            final Maze fresh = algorithm.create(COLS, ROWS);
+            fresh.generate(new Random(SEED));
+            
+            for (int index = 0; index < COLS * ROWS; index++)
+            {
+                Assert.assertEquals(algorithm.toString(), fresh.getGrid().getWalls(index), disk.getGrid().getWalls(index));
+            }
+            
+            cache.dispose();
+            other.dispose();
+        }
+    }
+    
+    @Test
+    public void testCorruptFile() throws Exception
+    {
+        final Maze expected = new MazeCache(CAPACITY, directory).get(Algorithm.Prims, COLS, ROWS, SEED);
+        
+        //replace the magic, the length and the seed are still correct
+        for (File file : directory.listFiles())
+        {
+            final RandomAccessFile output = new RandomAccessFile(file, "rw");
+            
+            try
+            {
+                output.writeInt(0);
+            }
+            finally
+            {
+                output.close();
+            }
+        }
+        
+        final MazeCache cache = new MazeCache(CAPACITY, directory);
+        
+        assertSame(expected, cache.get(Algorithm.Prims, COLS, ROWS, SEED));
+        Assert.assertEquals(0, cache.getDiskHits());
+        Assert.assertEquals(1, cache.getMisses());
+        
+        //the corrupt file was replaced
+        final MazeCache other = new MazeCache(CAPACITY, directory);
+        other.get(Algorithm.Prims, COLS, ROWS, SEED);
+        
+        Assert.assertEquals(1, other.getDiskHits());
+    }
+    
+    @Test
+    public void testOtherVersion() throws Exception
+    {
+        new MazeCache(CAPACITY, directory).get(Algorithm.Prims, COLS, ROWS, SEED);
+        
+        //a file stored without the version is never read
+        for (File file : directory.listFiles())
+        {
+            final String name = file.getName();
+            
+            Assert.assertTrue(name, name.contains("_v" + MazeCache.GENERATOR_VERSION + "_"));
+            Assert.assertTrue(file.renameTo(new File(directory, name.substring(0, name.indexOf("_v")) + MazeCache.FILE_EXTENSION)));
+        }
+        
+        final MazeCache cache = new MazeCache(CAPACITY, directory);
+        cache.get(Algorithm.Prims, COLS, ROWS, SEED);
+        
+        Assert.assertEquals(0, cache.getDiskHits());
+        Assert.assertEquals(1, cache.getMisses());
+    }
+    
+    /**
+     * Check the mazes are in the same state
+     * @param expected The first maze
+     * @param actual The maze to compare
+     */
+    private static void assertSame(final Maze expected, final Maze actual)
+    {
+        final String name = Algorithm.get(expected).toString();
+        
+        Assert.assertSame(Algorithm.get(expected), Algorithm.get(actual));
+        Assert.assertEquals(name, expected.getStartCol(), actual.getStartCol());
+        Assert.assertEquals(name, expected.getStartRow(), actual.getStartRow());
+        Assert.assertEquals(name, expected.getFinishCol(), actual.getFinishCol());
+        Assert.assertEquals(name, expected.getFinishRow(), actual.getFinishRow());
+        Assert.assertEquals(name, expected.isGenerated(), actual.isGenerated());
+        Assert.assertEquals(name, expected.getGrid().getVisitedCount(), actual.getGrid().getVisitedCount());
+        
+        for (int index = 0; index < expected.getGrid().getSize(); index++)
+        {
+            Assert.assertEquals(name, expected.getGrid().getWalls(index), actual.getGrid().getWalls(index));
+            Assert.assertEquals(name, expected.getGrid().hasVisited(index), actual.getGrid().hasVisited(index));
+            Assert.assertEquals(name, expected.getGrid().getCost(index), actual.getGrid().getCost(index));
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,347 @@
+package com.gamesbykevin.androidframework.maze;
+
+import com.gamesbykevin.androidframework.maze.algorithm.Algorithm;
+import com.gamesbykevin.androidframework.maze.topology.HexTopology;
+import com.gamesbykevin.androidframework.maze.topology.ITopology;
+import com.gamesbykevin.androidframework.maze.topology.MaskedTopology;
+import com.gamesbykevin.androidframework.maze.topology.SquareTopology;
+import com.gamesbykevin.androidframework.maze.topology.TriangleTopology;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.Random;
+
+/**
+ * Round trip every algorithm through the codec, using a buffer, a channel and a memory mapped file.<br>
+ * The algorithms that support other topologies are also round tripped with hex, triangle and masked rooms
+ * @author GOD
+ */
+public class MazeCodecTest
+{
+    //the dimensions (columns, rows) of the mazes we encode, including odd sizes where the last byte holds 1 room
+    private static final int[][] SIZES = {{2, 2}, {3, 5}, {31, 17}};
+    
+    //the seed used to generate each maze
+    private static final long SEED = 20170611L;
+    
+    //the position of the columns in the header, the rows, start (column, row) and finish (column, row) follow
+    private static final int COLS_POSITION = 4 + 1 + 1 + 1;
+    
+    //the algorithms that can generate a maze of any topology
+    private static final Algorithm[] TOPOLOGY_ALGORITHMS = {
+        Algorithm.AldousBroder, Algorithm.GrowingTree, Algorithm.HuntKill, Algorithm.Kruskals, 
+        Algorithm.Prims, Algorithm.RecursiveBacktracking, Algorithm.Wilsons
+    };
+    
+    @Test
+    public void testBuffer() throws Exception
+    {
+        for (Algorithm algorithm : Algorithm.values())
+        {
+            for (int[] size : SIZES)
+            {
+                final Maze maze = create(algorithm, size[0], size[1]);
+                final ByteBuffer buffer = MazeCodec.encode(maze, SEED);
+                
+                Assert.assertEquals(MazeCodec.getSize(maze), buffer.remaining());
+                Assert.assertEquals(SEED, MazeCodec.getSeed(buffer));
+                
+                assertSame(maze, MazeCodec.read(buffer));
+                
+                //the whole encoded maze is read
+                Assert.assertFalse(buffer.hasRemaining());
+            }
+        }
+    }
+    
+    @Test
+    public void testChannel() throws Exception
+    {
+        for (Algorithm algorithm : Algorithm.values())
+        {
+            for (int[] size : SIZES)
+            {
+                final Maze maze = create(algorithm, size[0], size[1]);
+                
+                final ByteArrayOutputStream output = new ByteArrayOutputStream();
+                MazeCodec.write(Channels.newChannel(output), maze, SEED);
+                
+                Assert.assertEquals(MazeCodec.getSize(maze), output.size());
+                
+                assertSame(maze, MazeCodec.read(Channels.newChannel(new ByteArrayInputStream(output.toByteArray()))));
+            }
+        }
+    }
+    
+    @Test
+    public void testFile() throws Exception
+    {
+        for (Algorithm algorithm : Algorithm.values())
+        {
+            for (int[] size : SIZES)
+            {
+                final Maze maze = create(algorithm, size[0], size[1]);
+                final File file = File.createTempFile("maze", ".bin");
+                
+                try
+                {
+                    final FileOutputStream output = new FileOutputStream(file);
+                    
+                    try
+                    {
+                        MazeCodec.write(output.getChannel(), maze, SEED);
+                    }
+                    finally
+                    {
+                        output.close();
+                    }
+                    
+                    assertSame(maze, MazeCodec.read(file));
+                }
+                finally
+                {
+                    //a mapped file can't be deleted on every platform until it is released
+                    if (!file.delete())
+                        file.deleteOnExit();
+                }
+            }
+        }
+    }
+    
+    @Test
+    public void testTopology() throws Exception
+    {
+        for (ITopology topology : createTopologies(13, 9))
+        {
+            for (Algorithm algorithm : TOPOLOGY_ALGORITHMS)
+            {
+                final Maze maze = create(algorithm, topology);
+                
+                final ByteBuffer buffer = MazeCodec.encode(maze, SEED);
+                
+                Assert.assertEquals(MazeCodec.getSize(maze), buffer.remaining());
+                
+                final Maze actual = MazeCodec.read(buffer);
+                
+                assertSame(maze, actual);
+                Assert.assertFalse(buffer.hasRemaining());
+                
+                //the decoded maze has the same shape
+                Assert.assertSame(topology.getClass(), actual.getGrid().getTopology().getClass());
+                Assert.assertEquals(topology.getSides(), actual.getGrid().getSides());
+                Assert.assertEquals(topology.getActiveCount(), actual.getGrid().getActiveCount());
+                
+                for (int index = 0; index < topology.getSize(); index++)
+                {
+                    Assert.assertEquals(topology.hasCell(index), actual.getGrid().hasRoom(index));
+                }
+                
+                //the channel reads the size of the payload from the topology in the header
+                final ByteArrayOutputStream output = new ByteArrayOutputStream();
+                MazeCodec.write(Channels.newChannel(output), maze, SEED);
+                
+                assertSame(maze, MazeCodec.read(Channels.newChannel(new ByteArrayInputStream(output.toByteArray()))));
+            }
+        }
+    }
+    
+    @Test(expected = Exception.class)
+    public void testNestedMask() throws Exception
+    {
+        final MaskedTopology masked = (MaskedTopology)createTopologies(13, 9)[3];
+        
+        MazeCodec.encode(create(Algorithm.Prims, new MaskedTopology(masked, createMask(13, 9))), SEED);
+    }
+    
+    @Test(expected = Exception.class)
+    public void testInvalidMagic() throws Exception
+    {
+        final ByteBuffer buffer = MazeCodec.encode(create(Algorithm.Prims, 4, 4), SEED);
+        
+        buffer.putInt(0, 0);
+        
+        MazeCodec.read(buffer);
+    }
+    
+    @Test(expected = Exception.class)
+    public void testTruncated() throws Exception
+    {
+        final ByteBuffer buffer = MazeCodec.encode(create(Algorithm.Prims, 40, 40), SEED);
+        
+        buffer.limit(buffer.limit() - 1);
+        
+        MazeCodec.read(buffer);
+    }
+    
+    @Test(expected = Exception.class)
+    public void testOverflow() throws Exception
+    {
+        final ByteBuffer buffer = MazeCodec.encode(create(Algorithm.Prims, 4, 4), SEED);
+        
+        //the columns multiplied by the rows overflow an int
+        buffer.putInt(COLS_POSITION, 0x10000);
+        buffer.putInt(COLS_POSITION + 4, 0x10000);
+        
+        MazeCodec.read(Channels.newChannel(new ByteArrayInputStream(buffer.array())));
+    }
+    
+    @Test(expected = Exception.class)
+    public void testTooLarge() throws Exception
+    {
+        final ByteBuffer buffer = MazeCodec.encode(create(Algorithm.Prims, 4, 4), SEED);
+        
+        //the maze would need more bytes than a buffer can hold
+        buffer.putInt(COLS_POSITION, Integer.MAX_VALUE);
+        buffer.putInt(COLS_POSITION + 4, 3);
+        
+        MazeCodec.read(Channels.newChannel(new ByteArrayInputStream(buffer.array())));
+    }
+    
+    @Test(expected = Exception.class)
+    public void testNegativeDimensions() throws Exception
+    {
+        final ByteBuffer buffer = MazeCodec.encode(create(Algorithm.Prims, 4, 4), SEED);
+        
+        buffer.putInt(COLS_POSITION, -4);
+        
+        MazeCodec.read(Channels.newChannel(new ByteArrayInputStream(buffer.array())));
+    }
+    
+    @Test(expected = Exception.class)
+    public void testStartOutOfBounds() throws Exception
+    {
+        final ByteBuffer buffer = MazeCodec.encode(create(Algorithm.Prims, 4, 4), SEED);
+        
+        //the start column follows the columns and rows
+        buffer.putInt(COLS_POSITION + 8, 4);
+        
+        MazeCodec.read(buffer);
+    }
+    
+    @Test(expected = Exception.class)
+    public void testFinishMasked() throws Exception
+    {
+        final Maze maze = create(Algorithm.Prims, createTopologies(13, 9)[3]);
+        
+        //the middle of the maze is not part of the mask
+        maze.setFinishLocation(6, 4);
+        
+        MazeCodec.read(MazeCodec.encode(maze, SEED));
+    }
+    
+    /**
+     * Create a generated maze
+     * @param algorithm The algorithm that generates the maze
+     * @param cols Total columns
+     * @param rows Total rows
+     * @return The generated maze, with the finish in the opposite corner of the start
+     * @throws Exception
+     */
+    private static Maze create(final Algorithm algorithm, final int cols, final int rows) throws Exception
+    {
+        final Maze maze = algorithm.create(cols, rows);
+        
+        maze.generate(new Random(SEED));
+        maze.setStartLocation(0, rows - 1);
+        maze.setFinishLocation(cols - 1, 0);
+        
+        return maze;
+    }
+    
+    /**
+     * Create a generated maze
+     * @param algorithm The algorithm that generates the maze
+     * @param topology The shape of the rooms and how they connect
+     * @return The generated maze
+     * @throws Exception
+     */
+    private static Maze create(final Algorithm algorithm, final ITopology topology) throws Exception
+    {
+        final Maze maze = algorithm.create(topology);
+        
+        maze.generate(new Random(SEED));
+        
+        return maze;
+    }
+    
+    /**
+     * Create every topology the codec supports
+     * @param cols Total columns
+     * @param rows Total rows
+     * @return The square, hex and triangle topologies, followed by the hex and triangle topologies with a mask
+     * @throws Exception
+     */
+    private static ITopology[] createTopologies(final int cols, final int rows) throws Exception
+    {
+        return new ITopology[] {
+            new SquareTopology(cols, rows), 
+            new HexTopology(cols, rows), 
+            new TriangleTopology(cols, rows), 
+            new MaskedTopology(new HexTopology(cols, rows), createMask(cols, rows)), 
+            new MaskedTopology(new TriangleTopology(cols, rows), createMask(cols, rows))
+        };
+    }
+    
+    /**
+     * Create a mask
+     * @param cols Total columns
+     * @param rows Total rows
+     * @return Every room except a hole in the middle of the maze
+     */
+    private static long[] createMask(final int cols, final int rows)
+    {
+        final long[] mask = new long[((cols * rows) + 63) / 64];
+        
+        for (int index = 0; index < cols * rows; index++)
+        {
+            final int col = index % cols;
+            final int row = index / cols;
+            
+            if (col < cols / 3 || col >= (cols * 2) / 3 || row < rows / 3 || row >= (rows * 2) / 3)
+                mask[index >> 6] |= (1L << index);
+        }
+        
+        return mask;
+    }
+    
+    /**
+     * Check the decoded maze is the same as the original
+     * @param expected The original maze
+     * @param actual The decoded maze
+     */
+    private static void assertSame(final Maze expected, final Maze actual)
+    {
+        final Algorithm algorithm = Algorithm.get(expected);
+        
+        Assert.assertSame(algorithm, Algorithm.get(actual));
+        Assert.assertEquals(algorithm.toString(), expected.getCols(), actual.getCols());
+        Assert.assertEquals(algorithm.toString(), expected.getRows(), actual.getRows());
+        Assert.assertEquals(algorithm.toString(), expected.getStartCol(), actual.getStartCol());
+        Assert.assertEquals(algorithm.toString(), expected.getStartRow(), actual.getStartRow());
+        Assert.assertEquals(algorithm.toString(), expected.getFinishCol(), actual.getFinishCol());
+        Assert.assertEquals(algorithm.toString(), expected.getFinishRow(), actual.getFinishRow());
+        Assert.assertArrayEquals(algorithm.toString(), getWalls(expected.getGrid()), getWalls(actual.getGrid()));
+        Assert.assertTrue(algorithm + " is not generated", actual.isGenerated());
+    }
+    
+    /**
+     * Get the walls
+     * @param grid The grid containing the walls
+     * @return A copy of the walls as stored in the grid
+     */
+    private static byte[] getWalls(final Grid grid)
+    {
+        final ByteBuffer buffer = ByteBuffer.allocate(grid.getWallsLength());
+        
+        grid.writeWalls(buffer);
+        
+        return buffer.array();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,105 @@
+package com.gamesbykevin.androidframework.maze.algorithm;
+
+import com.gamesbykevin.androidframework.maze.Maze;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+/**
+ * Check the generators don't create any objects while stepping through a maze.<br>
+ * The memory allocated by the thread is read before and after the steps, so it needs a JVM that can count it.
+ * @author GOD
+ */
+public class AllocationTest
+{
+    //the generators that work on int indexes with buffers created up front
+    private static final Algorithm[] ALGORITHMS = 
+    {
+        Algorithm.AldousBroder, 
+        Algorithm.GrowingTree, 
+        Algorithm.HuntKill, 
+        Algorithm.Kruskals, 
+        Algorithm.Prims, 
+        Algorithm.RecursiveBacktracking, 
+    };
+    
+    //the dimensions of the maze
+    private static final int COLS = 120, ROWS = 120;
+    
+    //the number of mazes generated before we measure, so class loading and compiling are not counted
+    private static final int WARM_UP = 3;
+    
+    //bytes allowed for reading the counter itself, far less than 1 byte per step
+    private static final long ALLOWANCE = 256;
+    
+    @Test
+    public void testNoAllocationPerStep() throws Exception
+    {
+        final com.sun.management.ThreadMXBean threads = getThreads();
+        
+        Assume.assumeTrue("The JVM can't count allocated memory", threads != null);
+        
+        for (Algorithm algorithm : ALGORITHMS)
+        {
+            for (int i = 0; i < WARM_UP; i++)
+            {
+                generate(algorithm.create(COLS, ROWS), new Random(i));
+            }
+            
+            //create everything needed before we measure
+            final Maze maze = algorithm.create(COLS, ROWS);
+            final Random random = new Random(WARM_UP);
+            
+            final long id = Thread.currentThread().getId();
+            final long before = threads.getThreadAllocatedBytes(id);
+            final int steps = generate(maze, random);
+            final long after = threads.getThreadAllocatedBytes(id);
+            
+            Assert.assertTrue(algorithm + " did not finish", maze.isGenerated());
+            Assert.assertTrue(algorithm + " allocated " + (after - before) + " bytes in " + steps + " steps", after - before <= ALLOWANCE);
+        }
+    }
+    
+    /**
+     * Step through the maze until it is generated
+     * @param maze The maze we want to generate
+     * @param random Object used to make random decisions
+     * @return The number of steps
+     * @throws Exception
+     */
+    private static int generate(final Maze maze, final Random random) throws Exception
+    {
+        int steps = 0;
+        
+        while (!maze.isGenerated())
+        {
+            maze.update(random);
+            steps++;
+        }
+        
+        return steps;
+    }
+    
+    /**
+     * Get the thread bean
+     * @return The object counting the memory allocated per thread, null if the JVM doesn't support it
+     */
+    private static com.sun.management.ThreadMXBean getThreads()
+    {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean))
+            return null;
+        
+        final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+        
+        if (!threads.isThreadAllocatedMemorySupported())
+            return null;
+        
+        threads.setThreadAllocatedMemoryEnabled(true);
+        
+        return threads;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,65 @@
+package com.gamesbykevin.androidframework.maze.benchmark;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+
+/**
+ * A canvas that draws nothing, it only counts the lines it is asked to draw
+ * @author GOD
+ */
+public class CountingCanvas extends Canvas
+{
+    //the number of draw calls
+    private int calls = 0;
+    
+    //the number of line segments across all of the calls
+    private int segments = 0;
+    
+    /**
+     * Reset the counts
+     */
+    public void reset()
+    {
+        this.calls = 0;
+        this.segments = 0;
+    }
+    
+    /**
+     * Get the calls
+     * @return The number of drawLine and drawLines calls since the last reset
+     */
+    public int getCalls()
+    {
+        return this.calls;
+    }
+    
+    /**
+     * Get the segments
+     * @return The number of line segments drawn since the last reset
+     */
+    public int getSegments()
+    {
+        return this.segments;
+    }
+    
+    @Override
+    public void drawLine(final float startX, final float startY, final float stopX, final float stopY, final Paint paint)
+    {
+        this.calls++;
+        this.segments++;
+    }
+    
+    @Override
+    public void drawLines(final float[] pts, final int offset, final int count, final Paint paint)
+    {
+        //each segment is 4 floats
+        this.calls++;
+        this.segments += count / 4;
+    }
+    
+    @Override
+    public void drawLines(final float[] pts, final Paint paint)
+    {
+        drawLines(pts, 0, pts.length, paint);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,146 @@
+package com.gamesbykevin.androidframework.maze.benchmark;
+
+import com.gamesbykevin.androidframework.maze.Maze;
+import com.gamesbykevin.androidframework.maze.MazeHelper;
+import com.gamesbykevin.androidframework.maze.algorithm.Algorithm;
+
+import java.util.Random;
+
+/**
+ * Compare the generation lifecycle query with the scan of every room it replaced, then time a step of every algorithm.<br>
+ * With the lifecycle a step on a 500x500 maze should cost about the same as on a 100x100 maze.<br>
+ * Run the main method from the unit test classpath, the times are the best of several runs.
+ * @author GOD
+ */
+public class LifecycleBenchmark
+{
+    //the dimension (columns and rows) of the large maze
+    private static final int LARGE = 500;
+    
+    //the dimension (columns and rows) of the small maze
+    private static final int SMALL = 100;
+    
+    //the number of times each measurement is repeated, the fastest is reported
+    private static final int RUNS = 5;
+    
+    //the number of scans timed per run
+    private static final int SCANS = 200;
+    
+    //the number of queries timed per run, a lot more than the scans since each query is so fast
+    private static final int QUERIES = 10000000;
+    
+    //the number of mazes generated by each algorithm before we measure, so the code is compiled
+    private static final int WARM_UP = 5;
+    
+    //keep the results so the queries are not removed by the compiler
+    private static int sink = 0;
+    
+    public static void main(final String[] args) throws Exception
+    {
+        //a maze not started is the worst case for the scan, every room is checked
+        final Maze maze = Algorithm.Prims.create(LARGE, LARGE);
+        
+        System.out.println(String.format("%dx%d maze not started, nanoseconds per query", LARGE, LARGE));
+        System.out.println(String.format("  MazeHelper.hasVisited  %12.0f", getScanTime(maze)));
+        //a second maze that has started, so the query can't be moved out of the loop by the compiler
+        final Maze started = Algorithm.Prims.create(LARGE, LARGE);
+        started.update(new Random());
+        
+        System.out.println(String.format("  Maze.hasStarted        %12.1f", getQueryTime(new Maze[]{maze, started})));
+        System.out.println();
+        
+        for (Algorithm algorithm : Algorithm.values())
+        {
+            for (int i = 0; i < WARM_UP; i++)
+            {
+                algorithm.create(SMALL, SMALL).generate(new Random(i));
+            }
+        }
+        
+        System.out.println("nanoseconds per step");
+        System.out.println(String.format("%-22s%12s%12s", "algorithm", SMALL + "x" + SMALL, LARGE + "x" + LARGE));
+        
+        for (Algorithm algorithm : Algorithm.values())
+        {
+            System.out.println(String.format("%-22s%12.0f%12.0f", algorithm, getStepTime(algorithm, SMALL), getStepTime(algorithm, LARGE)));
+        }
+        
+        if (sink == 0)
+            System.out.println();
+    }
+    
+    /**
+     * Get the time of the scan
+     * @param maze The maze we want to check
+     * @return The fastest time per call of {@link MazeHelper#hasVisited(Maze)} in nanoseconds
+     */
+    private static double getScanTime(final Maze maze)
+    {
+        double best = Double.MAX_VALUE;
+        
+        for (int run = 0; run < RUNS; run++)
+        {
+            final long start = System.nanoTime();
+            
+            for (int i = 0; i < SCANS; i++)
+            {
+                if (MazeHelper.hasVisited(maze))
+                    sink++;
+            }
+            
+            best = Math.min(best, (double)(System.nanoTime() - start) / SCANS);
+        }
+        
+        return best;
+    }
+    
+    /**
+     * Get the time of the lifecycle query
+     * @param mazes The mazes we want to check, each query checks the next maze
+     * @return The fastest time per call of {@link Maze#hasStarted()} in nanoseconds
+     */
+    private static double getQueryTime(final Maze[] mazes)
+    {
+        double best = Double.MAX_VALUE;
+        
+        for (int run = 0; run < RUNS; run++)
+        {
+            final long start = System.nanoTime();
+            
+            for (int i = 0; i < QUERIES; i++)
+            {
+                if (mazes[i % mazes.length].hasStarted())
+                    sink++;
+            }
+            
+            best = Math.min(best, (double)(System.nanoTime() - start) / QUERIES);
+        }
+        
+        return best;
+    }
+    
+    /**
+     * Get the step time
+     * @param algorithm The algorithm generating the maze
+     * @param size The columns and rows of the maze
+     * @return The fastest time per step in nanoseconds
+     * @throws Exception
+     */
+    private static double getStepTime(final Algorithm algorithm, final int size) throws Exception
+    {
+        double best = Double.MAX_VALUE;
+        
+        for (int run = 0; run < RUNS; run++)
+        {
+            final Maze maze = algorithm.create(size, size);
+            
+            final long start = System.nanoTime();
+            final int steps = maze.generate(new Random(run), Integer.MAX_VALUE);
+            final long time = System.nanoTime() - start;
+            
+            best = Math.min(best, (double)time / steps);
+        }
+        
+        return best;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,51 @@
+package com.gamesbykevin.androidframework.maze.benchmark;
+
+import com.gamesbykevin.androidframework.maze.algorithm.Prims;
+
+import java.util.Random;
+
+/**
+ * Time Prim's generation from 100x100 to 2000x2000.<br>
+ * The frontier operations are constant time, so the time per room should stay about the same as the maze grows.<br>
+ * Run the main method from the unit test classpath, the times are the best of several runs.
+ * @author GOD
+ */
+public class PrimsBenchmark
+{
+    //the dimension (columns and rows) of each maze
+    private static final int[] SIZES = {100, 250, 500, 1000, 2000};
+    
+    //the number of times each maze is generated, the fastest is reported
+    private static final int RUNS = 3;
+    
+    //the number of mazes generated before we measure, so the code is compiled
+    private static final int WARM_UP = 10;
+    
+    public static void main(final String[] args) throws Exception
+    {
+        for (int i = 0; i < WARM_UP; i++)
+        {
+            new Prims(SIZES[0], SIZES[0]).generate(new Random(i));
+        }
+        
+        System.out.println(String.format("%-12s%12s%16s", "size", "ms", "ns per room"));
+        
+        for (int size : SIZES)
+        {
+            long best = Long.MAX_VALUE;
+            
+            for (int run = 0; run < RUNS; run++)
+            {
+                final Prims maze = new Prims(size, size);
+                
+                final long start = System.nanoTime();
+                maze.generate(new Random(run));
+                best = Math.min(best, System.nanoTime() - start);
+                
+                maze.dispose();
+            }
+            
+            System.out.println(String.format("%-12s%12.1f%16.0f", size + "x" + size, best / 1000000.0, (double)best / (size * size)));
+        }
+    }
+}
\ No newline at end of file
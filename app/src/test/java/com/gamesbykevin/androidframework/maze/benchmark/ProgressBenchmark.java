@@ -0,0 +1,93 @@
+package com.gamesbykevin.androidframework.maze.benchmark;
+
+import com.gamesbykevin.androidframework.maze.Maze;
+import com.gamesbykevin.androidframework.maze.algorithm.Algorithm;
+
+import java.util.Random;
+
+/**
+ * Time each step of the algorithms that report their progress with {@link Maze#updateProgress()}.<br>
+ * The visited rooms are counted as they are flagged, so the cost of a step should stay flat as the maze grows.<br>
+ * Run the main method from the unit test classpath, the times are the best of several runs.
+ * @author GOD
+ */
+public class ProgressBenchmark
+{
+    //the algorithms that update the progress every step
+    private static final Algorithm[] ALGORITHMS = 
+    {
+        Algorithm.AldousBroder, 
+        Algorithm.GrowingTree, 
+        Algorithm.HuntKill, 
+        Algorithm.RecursiveBacktracking, 
+        Algorithm.Sidewinder, 
+        Algorithm.Wilsons, 
+    };
+    
+    //the dimension (columns and rows) of each maze
+    private static final int[] SIZES = {50, 100, 200, 400};
+    
+    //the number of times each maze is generated, the fastest is reported
+    private static final int RUNS = 5;
+    
+    //the number of mazes generated by each algorithm before we measure, so the code is compiled
+    private static final int WARM_UP = 10;
+    
+    public static void main(final String[] args) throws Exception
+    {
+        for (Algorithm algorithm : ALGORITHMS)
+        {
+            for (int i = 0; i < WARM_UP; i++)
+            {
+                algorithm.create(SIZES[1], SIZES[1]).generate(new Random(i));
+            }
+        }
+        
+        System.out.println("nanoseconds per step");
+        System.out.print(String.format("%-22s", "algorithm"));
+        
+        for (int size : SIZES)
+        {
+            System.out.print(String.format("%12s", size + "x" + size));
+        }
+        
+        System.out.println();
+        
+        for (Algorithm algorithm : ALGORITHMS)
+        {
+            System.out.print(String.format("%-22s", algorithm));
+            
+            for (int size : SIZES)
+            {
+                System.out.print(String.format("%12.0f", getStepTime(algorithm, size)));
+            }
+            
+            System.out.println();
+        }
+    }
+    
+    /**
+     * Get the step time
+     * @param algorithm The algorithm generating the maze
+     * @param size The columns and rows of the maze
+     * @return The fastest time per step in nanoseconds
+     * @throws Exception
+     */
+    private static double getStepTime(final Algorithm algorithm, final int size) throws Exception
+    {
+        double best = Double.MAX_VALUE;
+        
+        for (int run = 0; run < RUNS; run++)
+        {
+            final Maze maze = algorithm.create(size, size);
+            
+            final long start = System.nanoTime();
+            final int steps = maze.generate(new Random(run), Integer.MAX_VALUE);
+            final long time = System.nanoTime() - start;
+            
+            best = Math.min(best, (double)time / steps);
+        }
+        
+        return best;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,116 @@
+package com.gamesbykevin.androidframework.maze.benchmark;
+
+import android.graphics.Paint;
+
+import com.gamesbykevin.androidframework.maze.Grid;
+import com.gamesbykevin.androidframework.maze.Maze;
+import com.gamesbykevin.androidframework.maze.Room.Wall;
+import com.gamesbykevin.androidframework.maze.algorithm.Algorithm;
+
+import java.util.Random;
+
+/**
+ * Compare drawing the walls with a single Canvas.drawLines call against a Canvas.drawLine call for every wall of every room.<br>
+ * The walls are drawn on a {@link CountingCanvas}, so the counts are the calls a real canvas would receive and the times do not include any drawing.<br>
+ * Run the main method from the unit test classpath, the times are the best of several runs.
+ * @author GOD
+ */
+public class RenderBenchmark
+{
+    //the dimensions of each maze
+    private static final int COLS = 100, ROWS = 100;
+    
+    //the number of frames drawn per run
+    private static final int FRAMES = 200;
+    
+    //the number of times the frames are drawn, the fastest is reported
+    private static final int RUNS = 5;
+    
+    //the size of each room in pixels
+    private static final int DIMENSION = 10;
+    
+    public static void main(final String[] args) throws Exception
+    {
+        System.out.println(String.format("%dx%d mazes, %d frames, per frame: calls / segments / microseconds", COLS, ROWS, FRAMES));
+        System.out.println(String.format("%-22s%30s%30s", "algorithm", "drawLine per wall", "drawLines"));
+        
+        final CountingCanvas canvas = new CountingCanvas();
+        final Paint paint = new Paint();
+        
+        for (Algorithm algorithm : Algorithm.values())
+        {
+            final Maze maze = algorithm.create(COLS, ROWS);
+            maze.generate(new Random(9));
+            
+            //the wall segments are created on the first render
+            maze.render(canvas);
+            
+            long perWall = Long.MAX_VALUE, batched = Long.MAX_VALUE;
+            
+            for (int run = 0; run < RUNS; run++)
+            {
+                long start = System.nanoTime();
+                
+                for (int frame = 0; frame < FRAMES; frame++)
+                {
+                    renderPerWall(maze.getGrid(), canvas, paint);
+                }
+                
+                perWall = Math.min(perWall, System.nanoTime() - start);
+                
+                start = System.nanoTime();
+                
+                for (int frame = 0; frame < FRAMES; frame++)
+                {
+                    maze.render(canvas);
+                }
+                
+                batched = Math.min(batched, System.nanoTime() - start);
+            }
+            
+            //count a single frame of each
+            canvas.reset();
+            renderPerWall(maze.getGrid(), canvas, paint);
+            final String before = String.format("%d / %d / %.1f", canvas.getCalls(), canvas.getSegments(), perWall / 1000.0 / FRAMES);
+            
+            canvas.reset();
+            maze.render(canvas);
+            final String after = String.format("%d / %d / %.1f", canvas.getCalls(), canvas.getSegments(), batched / 1000.0 / FRAMES);
+            
+            System.out.println(String.format("%-22s%30s%30s", algorithm, before, after));
+            
+            maze.dispose();
+        }
+    }
+    
+    /**
+     * Draw the walls the way the maze did before the wall segments, a drawLine call for every wall of every room
+     * @param grid The grid containing the walls
+     * @param canvas Object where the walls are drawn
+     * @param paint The paint used to draw the walls
+     */
+    private static void renderPerWall(final Grid grid, final CountingCanvas canvas, final Paint paint)
+    {
+        final int d = DIMENSION;
+        
+        for (int row = 0; row < grid.getRows(); row++)
+        {
+            final int y1 = row * d;
+            
+            for (int col = 0; col < grid.getCols(); col++)
+            {
+                final int x1 = col * d;
+                final int index = grid.getIndex(col, row);
+                
+                if (grid.hasWall(index, Wall.East))
+                    canvas.drawLine(x1 + d, y1, x1 + d, y1 + d, paint);
+                if (grid.hasWall(index, Wall.West))
+                    canvas.drawLine(x1, y1, x1, y1 + d, paint);
+                if (grid.hasWall(index, Wall.North))
+                    canvas.drawLine(x1, y1, x1 + d, y1, paint);
+                if (grid.hasWall(index, Wall.South))
+                    canvas.drawLine(x1, y1 + d, x1 + d, y1 + d, paint);
+            }
+        }
+    }
+}
\ No newline at end of file
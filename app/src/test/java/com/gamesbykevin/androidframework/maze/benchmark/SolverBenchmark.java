@@ -0,0 +1,130 @@
+package com.gamesbykevin.androidframework.maze.benchmark;
+
+import com.gamesbykevin.androidframework.maze.DistanceField;
+import com.gamesbykevin.androidframework.maze.Grid;
+import com.gamesbykevin.androidframework.maze.Maze;
+import com.gamesbykevin.androidframework.maze.MazeSolver;
+import com.gamesbykevin.androidframework.maze.algorithm.Algorithm;
+
+import java.util.Random;
+
+/**
+ * Compare the solvers on the output of every generator.<br>
+ * Each solver finds the path between the same random pairs of rooms, the length is checked against a {@link DistanceField}.<br>
+ * Run the main method from the unit test classpath, the times are the best of several runs.
+ * @author GOD
+ */
+public class SolverBenchmark
+{
+    //the dimensions of each maze
+    private static final int COLS = 150, ROWS = 150;
+    
+    //the number of random (start, goal) pairs solved per run
+    private static final int PAIRS = 300;
+    
+    //the number of times the pairs are solved, the fastest is reported
+    private static final int RUNS = 5;
+    
+    public static void main(final String[] args) throws Exception
+    {
+        System.out.println(String.format("%dx%d mazes, %d random pairs, microseconds per solve (average rooms expanded)", COLS, ROWS, PAIRS));
+        System.out.print(String.format("%-22s", "algorithm"));
+        
+        for (MazeSolver.Method method : MazeSolver.Method.values())
+        {
+            System.out.print(String.format("%24s", method));
+        }
+        
+        System.out.println();
+        
+        for (Algorithm algorithm : Algorithm.values())
+        {
+            final Maze maze = algorithm.create(COLS, ROWS);
+            maze.generate(new Random(9));
+            
+            final MazeSolver solver = new MazeSolver(maze.getGrid());
+            final int[][] pairs = createPairs(maze.getGrid());
+            
+            System.out.print(String.format("%-22s", algorithm));
+            
+            for (MazeSolver.Method method : MazeSolver.Method.values())
+            {
+                //make sure every path is the shortest before timing it
+                final long expanded = check(solver, method, maze.getGrid(), pairs);
+                
+                long best = Long.MAX_VALUE;
+                
+                for (int run = 0; run < RUNS; run++)
+                {
+                    final long start = System.nanoTime();
+                    
+                    for (int[] pair : pairs)
+                    {
+                        solver.solve(method, pair[0], pair[1]);
+                    }
+                    
+                    best = Math.min(best, System.nanoTime() - start);
+                }
+                
+                System.out.print(String.format("%24s", String.format("%.0f (%d)", best / 1000.0 / PAIRS, expanded / PAIRS)));
+            }
+            
+            System.out.println();
+            
+            solver.dispose();
+            maze.dispose();
+        }
+    }
+    
+    /**
+     * Create random pairs of rooms
+     * @param grid The grid containing the rooms
+     * @return The (start, goal) index of each pair
+     */
+    private static int[][] createPairs(final Grid grid)
+    {
+        final Random random = new Random(1);
+        final int[][] pairs = new int[PAIRS][2];
+        
+        for (int[] pair : pairs)
+        {
+            pair[0] = random.nextInt(grid.getSize());
+            pair[1] = random.nextInt(grid.getSize());
+        }
+        
+        return pairs;
+    }
+    
+    /**
+     * Check every path found by the solver has the shortest length
+     * @param solver The solver we want to check
+     * @param method The method used to solve
+     * @param grid The grid containing the rooms
+     * @param pairs The (start, goal) index of each pair
+     * @return The total number of rooms expanded by the solver
+     * @throws Exception If a path is not the shortest
+     */
+    private static long check(final MazeSolver solver, final MazeSolver.Method method, final Grid grid, final int[][] pairs) throws Exception
+    {
+        final DistanceField field = new DistanceField(grid);
+        
+        long expanded = 0;
+        
+        for (int[] pair : pairs)
+        {
+            final int length = solver.solve(method, pair[0], pair[1]);
+            
+            field.calculate(pair[0]);
+            
+            //the path includes the start and the goal
+            if (length != field.getDistance(pair[1]) + 1)
+                throw new Exception(method + " path is not the shortest from " + pair[0] + " to " + pair[1]);
+            
+            expanded += solver.getExpanded();
+        }
+        
+        field.dispose();
+        
+        return expanded;
+    }
+}
\ No newline at end of file